@@ -0,0 +1,142 @@
+package com.divshark.textchipsample;
+
+/**
+ * Immutable TextChip configuration of the sample, persisted as a single compact record
+ */
+public final class ChipConfig {
+
+    // --------------------------------------------------------------------------------------------
+    // Constants
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '|';
+    private static final int FIELDS = 6;
+
+    public static final ChipConfig DEFAULT = new ChipConfig("Text Chip", "White", "14", 0xFF2196F3, false);
+
+    // --------------------------------------------------------------------------------------------
+    // Member Variables
+
+    private final String mText;
+    private final String mTextColor;
+    private final String mTextSize;
+    private final int mBgColor;
+    private final boolean mTextCaps;
+
+    public ChipConfig(String text, String textColor, String textSize, int bgColor, boolean textCaps) {
+        this.mText = text;
+        this.mTextColor = textColor;
+        this.mTextSize = textSize;
+        this.mBgColor = bgColor;
+        this.mTextCaps = textCaps;
+    }
+
+    // --------------------------------------------------------------------------------------------
+    // Public / private helpers
+
+    public String getText() {
+        return mText;
+    }
+
+    public String getTextColor() {
+        return mTextColor;
+    }
+
+    public String getTextSize() {
+        return mTextSize;
+    }
+
+    public int getBgColor() {
+        return mBgColor;
+    }
+
+    public boolean isTextCaps() {
+        return mTextCaps;
+    }
+
+    public ChipConfig withText(String text) {
+        return new ChipConfig(text, mTextColor, mTextSize, mBgColor, mTextCaps);
+    }
+
+    public ChipConfig withTextColor(String textColor) {
+        return new ChipConfig(mText, textColor, mTextSize, mBgColor, mTextCaps);
+    }
+
+    public ChipConfig withTextSize(String textSize) {
+        return new ChipConfig(mText, mTextColor, textSize, mBgColor, mTextCaps);
+    }
+
+    public ChipConfig withBgColor(int bgColor) {
+        return new ChipConfig(mText, mTextColor, mTextSize, bgColor, mTextCaps);
+    }
+
+    public ChipConfig withTextCaps(boolean textCaps) {
+        return new ChipConfig(mText, mTextColor, mTextSize, mBgColor, textCaps);
+    }
+
+    /**
+     * Encodes the configuration as "version|bgColor|textSize|textColor|caps|text", the text
+     * goes last so it may contain the separator
+     */
+    public String encode() {
+        return VERSION + SEPARATOR + Integer.toHexString(mBgColor) + SEPARATOR + mTextSize + SEPARATOR
+                + mTextColor + SEPARATOR + (mTextCaps ? '1' : '0') + SEPARATOR + mText;
+    }
+
+    /**
+     * Returns the configuration of a record written by {@link #encode()}, null when it is
+     * missing or from another version
+     */
+    public static ChipConfig decode(String record) {
+        if (record == null) {
+            return null;
+        }
+
+        String[] fields = new String[FIELDS];
+        int start = 0;
+        for (int i = 0; i < FIELDS - 1; i++) {
+            int end = record.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                return null;
+            }
+            fields[i] = record.substring(start, end);
+            start = end + 1;
+        }
+        fields[FIELDS - 1] = record.substring(start);
+
+        if (!VERSION.equals(fields[0])) {
+            return null;
+        }
+
+        try {
+            int bgColor = (int) Long.parseLong(fields[1], 16);
+            return new ChipConfig(fields[5], fields[3], fields[2], bgColor, "1".equals(fields[4]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChipConfig)) {
+            return false;
+        }
+
+        ChipConfig other = (ChipConfig) o;
+        return mBgColor == other.mBgColor && mTextCaps == other.mTextCaps && mText.equals(other.mText)
+                && mTextColor.equals(other.mTextColor) && mTextSize.equals(other.mTextSize);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mText.hashCode();
+        result = 31 * result + mTextColor.hashCode();
+        result = 31 * result + mTextSize.hashCode();
+        result = 31 * result + mBgColor;
+        result = 31 * result + (mTextCaps ? 1 : 0);
+        return result;
+    }
+}
@@ -0,0 +1,237 @@
+package com.divshark.textchipsample;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Persists the {@link ChipConfig} off the main thread. The record is loaded on a background
+ * thread and edits are debounced: a burst of edits ends in a single atomic write once no edit
+ * came in for {@link #IDLE_WINDOW_MS}, or at the latest {@link #MAX_WRITE_DELAY_MS} after the
+ * first unsaved edit while edits keep coming.
+ */
+public class ChipConfigStore {
+
+    // --------------------------------------------------------------------------------------------
+    // Constants
+
+    static final long IDLE_WINDOW_MS = 500L;
+    static final long MAX_WRITE_DELAY_MS = 2000L;
+
+    private static final String PREFS = "prefs";
+    private static final String CHIP_CONFIG = "chip_config";
+
+    /**
+     * Reads & writes the encoded record, called on the store's thread only
+     */
+    interface Backend {
+        String read();
+
+        void write(String record);
+    }
+
+    /**
+     * Runs the store's tasks on a single background thread
+     */
+    interface Scheduler {
+        long uptimeMillis();
+
+        void postDelayed(Runnable task, long delayMillis);
+
+        void cancel(Runnable task);
+
+        void shutdown();
+    }
+
+    /**
+     * Receives the loaded configuration on the main thread
+     */
+    public interface OnLoadedListener {
+        void onLoaded(ChipConfig config);
+    }
+
+    // --------------------------------------------------------------------------------------------
+    // Member Variables
+
+    private final Backend mBackend;
+    private final Scheduler mScheduler;
+    private final Executor mMainExecutor;
+
+    // Guarded by this, the latest edit not written yet
+    private ChipConfig mPending;
+    private long mFirstPendingTime;
+
+    // Store thread only, skips writes of the record already on disk
+    private String mWrittenRecord;
+
+    private final Runnable mWriteTask = new Runnable() {
+        @Override
+        public void run() {
+            writePending();
+        }
+    };
+
+    public ChipConfigStore(Context context) {
+        this(new PreferencesBackend(context.getSharedPreferences(PREFS, Context.MODE_PRIVATE)),
+                new HandlerScheduler(), new MainThreadExecutor());
+    }
+
+    ChipConfigStore(Backend backend, Scheduler scheduler, Executor mainExecutor) {
+        this.mBackend = backend;
+        this.mScheduler = scheduler;
+        this.mMainExecutor = mainExecutor;
+    }
+
+    // --------------------------------------------------------------------------------------------
+    // Public / private helpers
+
+    /**
+     * Reads the configuration on the store's thread, {@link ChipConfig#DEFAULT} when none was saved
+     */
+    public void load(final OnLoadedListener listener) {
+        mScheduler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                String record = mBackend.read();
+                ChipConfig decoded = ChipConfig.decode(record);
+                mWrittenRecord = decoded != null ? record : null;
+
+                final ChipConfig config = decoded != null ? decoded : ChipConfig.DEFAULT;
+                mMainExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onLoaded(config);
+                    }
+                });
+            }
+        }, 0L);
+    }
+
+    /**
+     * Schedules config to be written, replacing any edit not written yet
+     */
+    public void update(ChipConfig config) {
+        long now = mScheduler.uptimeMillis();
+        long delay = IDLE_WINDOW_MS;
+
+        synchronized (this) {
+            if (mPending == null) {
+                mFirstPendingTime = now;
+            } else {
+                // Do not postpone the write forever while edits keep coming
+                delay = Math.min(delay, Math.max(0L, mFirstPendingTime + MAX_WRITE_DELAY_MS - now));
+            }
+            mPending = config;
+        }
+
+        mScheduler.cancel(mWriteTask);
+        mScheduler.postDelayed(mWriteTask, delay);
+    }
+
+    /**
+     * Writes the pending edit without waiting for the idle window, call when the UI goes away
+     */
+    public void flush() {
+        mScheduler.cancel(mWriteTask);
+        mScheduler.postDelayed(mWriteTask, 0L);
+    }
+
+    /**
+     * Writes the pending edit & stops the store's thread
+     */
+    public void close() {
+        flush();
+        mScheduler.shutdown();
+    }
+
+    private void writePending() {
+        ChipConfig config;
+        synchronized (this) {
+            config = mPending;
+            mPending = null;
+        }
+
+        if (config == null) {
+            return;
+        }
+
+        String record = config.encode();
+        if (record.equals(mWrittenRecord)) {
+            return;
+        }
+
+        mBackend.write(record);
+        mWrittenRecord = record;
+    }
+
+    // --------------------------------------------------------------------------------------------
+    // Android implementations
+
+    private static final class PreferencesBackend implements Backend {
+
+        private final SharedPreferences mSharedPreferences;
+
+        PreferencesBackend(SharedPreferences sharedPreferences) {
+            this.mSharedPreferences = sharedPreferences;
+        }
+
+        @Override
+        public String read() {
+            return mSharedPreferences.getString(CHIP_CONFIG, null);
+        }
+
+        @Override
+        public void write(String record) {
+            // Already off the main thread, commit the whole record at once
+            mSharedPreferences.edit().putString(CHIP_CONFIG, record).commit();
+        }
+    }
+
+    private static final class HandlerScheduler implements Scheduler {
+
+        private final HandlerThread mThread;
+        private final Handler mHandler;
+
+        HandlerScheduler() {
+            mThread = new HandlerThread("ChipConfigStore");
+            mThread.start();
+            mHandler = new Handler(mThread.getLooper());
+        }
+
+        @Override
+        public long uptimeMillis() {
+            return SystemClock.uptimeMillis();
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMillis) {
+            mHandler.postDelayed(task, delayMillis);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            mHandler.removeCallbacks(task);
+        }
+
+        @Override
+        public void shutdown() {
+            // Runs the tasks already due, such as the flushed write, then stops
+            mThread.quitSafely();
+        }
+    }
+
+    private static final class MainThreadExecutor implements Executor {
+
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            mHandler.post(command);
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package com.divshark.textchipsample;
 
 import android.app.Dialog;
-import android.content.Context;
 import android.content.DialogInterface;
-import android.content.SharedPreferences;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.support.v7.app.AlertDialog;
@@ -47,21 +45,10 @@ public class MainActivity extends AppCompatActivity {
     private AppCompatSpinner mSpTextColor;
     private FrameLayout mFlBackgroundColor;
     private AppCompatCheckBox mCbTextCaps;
-    private SharedPreferences mSharedPreferences;
 
-    private static final String PREFS = "prefs";
-
-    private static final String TEXT = "text";
-    private static final String TEXT_COLOR = "text_color";
-    private static final String TEXT_SIZE = "text_size";
-    private static final String BG_COLOR =  "bg_color";
-    private static final String TEXT_CAPS =  "cap_text";
-
-    private String textColor;
-    private String textSize;
-    private int bgColor;
-    private String text;
-    private boolean textCaps;
+    // Loads & saves the chip configuration off the main thread, edits are batched
+    private ChipConfigStore mConfigStore;
+    private ChipConfig mConfig;
 
     // --------------------------------------------------------------------------------------------
     // Class overrides
@@ -71,9 +58,11 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        mSharedPreferences = getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        mConfigStore = new ChipConfigStore(this);
 
         mChip = (TextChip) findViewById(R.id.text_chip);
+        // The chip follows the edit text on every keystroke, apply updates once per frame
+        mChip.setCoalescingEnabled(true);
         mEtText = (AppCompatEditText) findViewById(R.id.et_text);
         mSpOptions = (AppCompatSpinner) findViewById(R.id.sp_text_size);
         mSpTextColor = (AppCompatSpinner) findViewById(R.id.sp_text_color);
@@ -81,29 +70,46 @@ public class MainActivity extends AppCompatActivity {
         mCbTextCaps = (AppCompatCheckBox) findViewById(R.id.cb_text_caps);
 
 
-        // Setup from preferences
-        text = mSharedPreferences.getString(TEXT, "Text Chip");
-        textColor = mSharedPreferences.getString(TEXT_COLOR, "White");
-        textSize = mSharedPreferences.getString(TEXT_SIZE, "14");
-        bgColor = mSharedPreferences.getInt(BG_COLOR, Color.parseColor("#2196F3"));
-        textCaps = mSharedPreferences.getBoolean(TEXT_CAPS, false);
-
-
         ArrayAdapter<String> adapter = new ArrayAdapter<>(MainActivity.this, android.R.layout.simple_list_item_1, TEXT_SIZES);
         mSpOptions.setAdapter(adapter);
-        mSpOptions.setOnItemSelectedListener(SpinnerListener);
 
         ArrayAdapter<String> adapterTextColor = new ArrayAdapter<>(MainActivity.this, android.R.layout.simple_list_item_1, COLORS);
         mSpTextColor.setAdapter(adapterTextColor);
-        mSpTextColor.setOnItemSelectedListener(TextColorListener);
-
-        init();
 
         mChip.setOnClickListener(ChipListener);
-        mEtText.addTextChangedListener(ChipTextWatcher);
-        mCbTextCaps.setOnCheckedChangeListener(CbListener);
 
-        mFlBackgroundColor.setOnClickListener(BgColorListener);
+        // Setup from the saved configuration, the controls listen once it is shown
+        mConfigStore.load(new ChipConfigStore.OnLoadedListener() {
+            @Override
+            public void onLoaded(ChipConfig config) {
+                if(isFinishing() || isDestroyed()){
+                    return;
+                }
+
+                mConfig = config;
+                init();
+
+                mSpOptions.setOnItemSelectedListener(SpinnerListener);
+                mSpTextColor.setOnItemSelectedListener(TextColorListener);
+                mEtText.addTextChangedListener(ChipTextWatcher);
+                mCbTextCaps.setOnCheckedChangeListener(CbListener);
+                mFlBackgroundColor.setOnClickListener(BgColorListener);
+            }
+        });
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+
+        // Do not wait for the idle window, the process may be killed in the background
+        mConfigStore.flush();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mConfigStore.close();
     }
 
     // --------------------------------------------------------------------------------------------
@@ -111,13 +117,11 @@ public class MainActivity extends AppCompatActivity {
 
     private void init(){
 
-        mChip.setText(text);
-        mChip.setTextSize(Integer.parseInt(textSize) * 2);
-        mChip.setBackgroundColor(bgColor);
-        mChip.setUpperCase(textCaps);
-        mCbTextCaps.setChecked(textCaps);
-
-        mFlBackgroundColor.setBackgroundColor(bgColor);
+        String text = mConfig.getText();
+        String textColor = mConfig.getTextColor();
+        String textSize = mConfig.getTextSize();
+        int bgColor = mConfig.getBgColor();
+        boolean textCaps = mConfig.isTextCaps();
 
         int colorMatch = 0;
         for(int i = 0; i <= COLORS.length - 1; i++){
@@ -125,16 +129,20 @@ public class MainActivity extends AppCompatActivity {
                 colorMatch = i;
             }
         }
+
+        // Apply all of the chip properties in a single layout pass
+        mChip.edit()
+                .setText(text)
+                .setTextSize(Integer.parseInt(textSize) * 2)
+                .setBackgroundColor(bgColor)
+                .setUpperCase(textCaps)
+                .setTextColor(colorMatch == 0 ? Color.BLACK : Color.WHITE)
+                .apply();
+        mCbTextCaps.setChecked(textCaps);
+
+        mFlBackgroundColor.setBackgroundColor(bgColor);
+
         mSpTextColor.setSelection(colorMatch);
-        switch(colorMatch){
-            case 0:
-                mChip.setTextColor(Color.BLACK);
-                break;
-
-            case 1:
-                mChip.setTextColor(Color.WHITE);
-                break;
-        }
 
         int match = 0;
         for(int i = 0; i <= TEXT_SIZES.length - 1; i++){
@@ -147,6 +155,15 @@ public class MainActivity extends AppCompatActivity {
         mEtText.setText(text);
     }
 
+    private void updateConfig(ChipConfig config){
+        if(config.equals(mConfig)){
+            return;
+        }
+
+        mConfig = config;
+        mConfigStore.update(config);
+    }
+
     // --------------------------------------------------------------------------------------------
     // Listeners for the UI Elements
 
@@ -157,12 +174,12 @@ public class MainActivity extends AppCompatActivity {
         @Override
         public void onTextChanged(CharSequence s, int start, int before, int count) {
 
-            mChip.setText(s.toString());
+            mChip.setText(s);
         }
 
         @Override
         public void afterTextChanged(Editable s) {
-            mSharedPreferences.edit().putString(TEXT, s.toString()).apply();
+            updateConfig(mConfig.withText(s.toString()));
         }
     };
 
@@ -172,7 +189,7 @@ public class MainActivity extends AppCompatActivity {
 
             Integer value = Integer.parseInt(TEXT_SIZES[position]);
             mChip.setTextSize(value * 2);
-            mSharedPreferences.edit().putString(TEXT_SIZE, Integer.toString(value)).apply();
+            updateConfig(mConfig.withTextSize(Integer.toString(value)));
         }
 
         @Override
@@ -186,12 +203,12 @@ public class MainActivity extends AppCompatActivity {
             switch(position){
                 case 0:
                     mChip.setTextColor(Color.BLACK);
-                    mSharedPreferences.edit().putString(TEXT_COLOR, "Black").apply();
+                    updateConfig(mConfig.withTextColor("Black"));
                     break;
 
                 case 1:
                     mChip.setTextColor(Color.WHITE);
-                    mSharedPreferences.edit().putString(TEXT_COLOR, "White").apply();
+                    updateConfig(mConfig.withTextColor("White"));
                     break;
             }
         }
@@ -218,7 +235,7 @@ public class MainActivity extends AppCompatActivity {
 
                             int color = lobsterPicker.getColor();
                             mChip.setBackgroundColor(color);
-                            mSharedPreferences.edit().putInt(BG_COLOR, color).apply();
+                            updateConfig(mConfig.withBgColor(color));
                             mFlBackgroundColor.setBackgroundColor(color);
                         }
                     }).setNegativeButton(getString(R.string.cancel), null);
@@ -233,7 +250,7 @@ public class MainActivity extends AppCompatActivity {
     private final CompoundButton.OnCheckedChangeListener CbListener = new CompoundButton.OnCheckedChangeListener() {
         @Override
         public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
-            mSharedPreferences.edit().putBoolean(TEXT_CAPS, isChecked).apply();
+            updateConfig(mConfig.withTextCaps(isChecked));
             mChip.setUpperCase(isChecked);
             Log.d(TAG, "to upper case "+ isChecked);
 
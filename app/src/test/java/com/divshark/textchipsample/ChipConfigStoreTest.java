@@ -0,0 +1,224 @@
+package com.divshark.textchipsample;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Simulates bursts of edits against a fake disk & a virtual clock and counts the writes
+ */
+public class ChipConfigStoreTest {
+
+    // One keystroke per frame
+    private static final long EDIT_INTERVAL_MS = 16L;
+
+    private FakeBackend mBackend;
+    private FakeScheduler mScheduler;
+    private ChipConfigStore mStore;
+
+    @Before
+    public void setUp() throws Exception {
+        mBackend = new FakeBackend();
+        mScheduler = new FakeScheduler();
+        mStore = new ChipConfigStore(mBackend, mScheduler, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+    }
+
+    @Test
+    public void thousandEdits_writesBoundedByMaxDelay() throws Exception {
+        ChipConfig config = ChipConfig.DEFAULT;
+        for (int i = 0; i < 1000; i++) {
+            config = config.withText("Chip " + i);
+            mStore.update(config);
+            mScheduler.advance(EDIT_INTERVAL_MS);
+        }
+        mScheduler.advance(ChipConfigStore.IDLE_WINDOW_MS);
+
+        long duration = 1000 * EDIT_INTERVAL_MS;
+        long maxWrites = duration / ChipConfigStore.MAX_WRITE_DELAY_MS + 1;
+        assertTrue("writes " + mBackend.writes, mBackend.writes <= maxWrites);
+        assertEquals(config.encode(), mBackend.record);
+    }
+
+    @Test
+    public void burstsOfEdits_writeOncePerIdleWindow() throws Exception {
+        ChipConfig config = ChipConfig.DEFAULT;
+        for (int burst = 0; burst < 10; burst++) {
+            for (int i = 0; i < 100; i++) {
+                config = config.withTextSize(Integer.toString(i)).withTextCaps(burst % 2 == 0);
+                mStore.update(config);
+            }
+            mScheduler.advance(ChipConfigStore.IDLE_WINDOW_MS);
+        }
+
+        assertEquals(10, mBackend.writes);
+        assertEquals(config, ChipConfig.decode(mBackend.record));
+    }
+
+    @Test
+    public void unchangedRecord_isNotWrittenAgain() throws Exception {
+        mBackend.record = ChipConfig.DEFAULT.encode();
+        mStore.load(new ChipConfigStore.OnLoadedListener() {
+            @Override
+            public void onLoaded(ChipConfig config) {
+            }
+        });
+        mScheduler.advance(0L);
+
+        mStore.update(ChipConfig.DEFAULT.withText("Edited"));
+        mStore.update(ChipConfig.DEFAULT);
+        mScheduler.advance(ChipConfigStore.IDLE_WINDOW_MS);
+
+        assertEquals(0, mBackend.writes);
+    }
+
+    @Test
+    public void flush_writesWithoutWaitingForTheIdleWindow() throws Exception {
+        ChipConfig config = ChipConfig.DEFAULT.withBgColor(0xFF000000);
+        mStore.update(config);
+        mStore.flush();
+        mScheduler.advance(0L);
+
+        assertEquals(1, mBackend.writes);
+
+        // The debounced write finds nothing left to write
+        mScheduler.advance(ChipConfigStore.IDLE_WINDOW_MS);
+        assertEquals(1, mBackend.writes);
+        assertEquals(config.encode(), mBackend.record);
+    }
+
+    @Test
+    public void load_readsOnTheStoreThread() throws Exception {
+        final ChipConfig saved = ChipConfig.DEFAULT.withText("Saved | chip").withTextColor("Black");
+        mBackend.record = saved.encode();
+
+        final List<ChipConfig> loaded = new ArrayList<>();
+        mStore.load(new ChipConfigStore.OnLoadedListener() {
+            @Override
+            public void onLoaded(ChipConfig config) {
+                loaded.add(config);
+            }
+        });
+
+        assertEquals(0, mBackend.reads);
+        mScheduler.advance(0L);
+
+        assertEquals(1, mBackend.reads);
+        assertEquals(1, loaded.size());
+        assertEquals(saved, loaded.get(0));
+    }
+
+    @Test
+    public void load_missingOrUnknownRecord_returnsDefault() throws Exception {
+        final List<ChipConfig> loaded = new ArrayList<>();
+        ChipConfigStore.OnLoadedListener listener = new ChipConfigStore.OnLoadedListener() {
+            @Override
+            public void onLoaded(ChipConfig config) {
+                loaded.add(config);
+            }
+        };
+
+        mStore.load(listener);
+        mBackend.record = "2|ff000000|14|White|0|Chip";
+        mStore.load(listener);
+        mScheduler.advance(0L);
+
+        assertEquals(2, loaded.size());
+        assertEquals(ChipConfig.DEFAULT, loaded.get(0));
+        assertEquals(ChipConfig.DEFAULT, loaded.get(1));
+    }
+
+    @Test
+    public void encode_roundTrips() throws Exception {
+        ChipConfig config = new ChipConfig("A|B|C", "Black", "28", 0x802196F3, true);
+        assertEquals(config, ChipConfig.decode(config.encode()));
+        assertNull(ChipConfig.decode("1|zz|14|White|0|Chip"));
+        assertNull(ChipConfig.decode("1|ff"));
+    }
+
+    private static final class FakeBackend implements ChipConfigStore.Backend {
+
+        String record;
+        int reads;
+        int writes;
+
+        @Override
+        public String read() {
+            reads++;
+            return record;
+        }
+
+        @Override
+        public void write(String record) {
+            writes++;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Runs due tasks in order when the virtual clock advances
+     */
+    private static final class FakeScheduler implements ChipConfigStore.Scheduler {
+
+        private final List<Runnable> mTasks = new ArrayList<>();
+        private final List<Long> mTimes = new ArrayList<>();
+        private long mNow;
+
+        void advance(long millis) {
+            long target = mNow + millis;
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < mTimes.size(); i++) {
+                    if (mTimes.get(i) <= target && (next < 0 || mTimes.get(i) < mTimes.get(next))) {
+                        next = i;
+                    }
+                }
+                if (next < 0) {
+                    break;
+                }
+
+                mNow = Math.max(mNow, mTimes.remove(next));
+                mTasks.remove(next).run();
+            }
+            mNow = target;
+        }
+
+        @Override
+        public long uptimeMillis() {
+            return mNow;
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMillis) {
+            mTasks.add(task);
+            mTimes.add(mNow + delayMillis);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            Iterator<Runnable> tasks = mTasks.iterator();
+            Iterator<Long> times = mTimes.iterator();
+            while (tasks.hasNext()) {
+                times.next();
+                if (tasks.next() == task) {
+                    tasks.remove();
+                    times.remove();
+                }
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.divshark.text_chip.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Collects benchmark results and writes them as JSON so runs can be diffed between library versions
+ */
+final class BenchmarkReport {
+
+    private final String mSuite;
+    private final List<BenchmarkResult> mResults = new ArrayList<>();
+
+    BenchmarkReport(String suite) {
+        this.mSuite = suite;
+    }
+
+    synchronized void add(BenchmarkResult result) {
+        mResults.add(result);
+    }
+
+    /**
+     * Writes the report to <code>benchmark.outputDir</code>/&lt;suite&gt;.json
+     */
+    synchronized File write() throws IOException {
+        File directory = new File(System.getProperty("benchmark.outputDir", "build/benchmark-results"));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create " + directory);
+        }
+
+        File file = new File(directory, mSuite + ".json");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(toJson());
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    synchronized String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"suite\": ").append(quote(mSuite)).append(",\n");
+        json.append("  \"libraryVersion\": ").append(quote(System.getProperty("benchmark.libraryVersion", "unknown"))).append(",\n");
+        json.append("  \"jvm\": ").append(quote(System.getProperty("java.vm.name") + " " + System.getProperty("java.version"))).append(",\n");
+        json.append("  \"timestamp\": ").append(System.currentTimeMillis()).append(",\n");
+        json.append("  \"results\": [");
+
+        for (int i = 0; i < mResults.size(); i++) {
+            BenchmarkResult result = mResults.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {");
+            json.append("\"name\": ").append(quote(result.name));
+            json.append(", \"iterations\": ").append(result.iterations);
+            json.append(", \"opsPerSecond\": ").append(number(result.getOpsPerSecond()));
+            json.append(", \"nanosPerOp\": ").append(number(result.getNanosPerOp()));
+            json.append(", \"allocatedBytesPerOp\": ").append(number(result.getAllocatedBytesPerOp()));
+            if (result.frames > 0) {
+                json.append(", \"frames\": ").append(result.frames);
+                json.append(", \"frameBudgetOverruns\": ").append(result.frameBudgetOverruns);
+                json.append(", \"maxFrameMillis\": ").append(number(result.getMaxFrameMillis()));
+            }
+            json.append("}");
+        }
+
+        json.append("\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.US, "%.3f", value);
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2);
+        quoted.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        quoted.append('"');
+        return quoted.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.divshark.text_chip.benchmark;
+
+/**
+ * Timing & allocation figures for one benchmarked operation, with the frame figures of
+ * frame based stress runs
+ */
+final class BenchmarkResult {
+
+    final String name;
+    final int iterations;
+    final long elapsedNanos;
+    final long allocatedBytes;
+
+    // Zero unless the operations ran in frames
+    final int frames;
+    final int frameBudgetOverruns;
+    final long maxFrameNanos;
+
+    BenchmarkResult(String name, int iterations, long elapsedNanos, long allocatedBytes) {
+        this(name, iterations, elapsedNanos, allocatedBytes, 0, 0, 0L);
+    }
+
+    BenchmarkResult(String name, int iterations, long elapsedNanos, long allocatedBytes, int frames,
+            int frameBudgetOverruns, long maxFrameNanos) {
+        this.name = name;
+        this.iterations = iterations;
+        this.elapsedNanos = elapsedNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.frames = frames;
+        this.frameBudgetOverruns = frameBudgetOverruns;
+        this.maxFrameNanos = maxFrameNanos;
+    }
+
+    double getOpsPerSecond() {
+        return elapsedNanos == 0 ? 0 : iterations * 1e9 / elapsedNanos;
+    }
+
+    double getNanosPerOp() {
+        return (double) elapsedNanos / iterations;
+    }
+
+    /**
+     * Returns the bytes allocated per operation, or -1 when the JVM cannot report allocations
+     */
+    double getAllocatedBytesPerOp() {
+        return allocatedBytes < 0 ? -1 : (double) allocatedBytes / iterations;
+    }
+
+    double getMaxFrameMillis() {
+        return maxFrameNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        String result = String.format("%-40s %14.1f ops/s %12.1f ns/op %12.1f B/op",
+                name, getOpsPerSecond(), getNanosPerOp(), getAllocatedBytesPerOp());
+        if (frames > 0) {
+            result += String.format(" %6d/%d frames over budget, worst %.2f ms",
+                    frameBudgetOverruns, frames, getMaxFrameMillis());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package com.divshark.text_chip.benchmark;
+
+import java.lang.reflect.Method;
+
+/**
+ * Runs an operation in a timed loop after a warm up and records the allocations it made
+ */
+final class BenchmarkRunner {
+
+    /**
+     * The code under measurement, called once per iteration
+     */
+    interface Operation {
+        void run(int iteration);
+    }
+
+    private static final int DEFAULT_WARMUP = 2000;
+    private static final int DEFAULT_ITERATIONS = 20000;
+
+    // java.lang.management is not part of the android.jar the tests compile against, so the
+    // allocation counter is looked up by reflection; both are null when the JVM lacks it
+    private static final Object THREAD_BEAN;
+    private static final Method GET_THREAD_ALLOCATED_BYTES;
+
+    static {
+        Object bean = null;
+        Method method = null;
+        try {
+            Class<?> factory = Class.forName("java.lang.management.ManagementFactory");
+            Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+            Object candidate = factory.getMethod("getThreadMXBean").invoke(null);
+            if (beanClass.isInstance(candidate)
+                    && (Boolean) beanClass.getMethod("isThreadAllocatedMemorySupported").invoke(candidate)
+                    && (Boolean) beanClass.getMethod("isThreadAllocatedMemoryEnabled").invoke(candidate)) {
+                bean = candidate;
+                method = beanClass.getMethod("getThreadAllocatedBytes", long.class);
+            }
+        } catch (Exception e) {
+            // Not supported, allocations are reported as -1
+            bean = null;
+            method = null;
+        }
+        THREAD_BEAN = bean;
+        GET_THREAD_ALLOCATED_BYTES = method;
+    }
+
+    private BenchmarkRunner() {
+    }
+
+    static BenchmarkResult run(String name, Operation operation) {
+        return run(name, DEFAULT_WARMUP, DEFAULT_ITERATIONS, operation);
+    }
+
+    static BenchmarkResult run(String name, int warmup, int iterations, Operation operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run(i);
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        BenchmarkResult result = new BenchmarkResult(name, iterations, elapsed, allocated);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Bytes allocated by the current thread so far, or -1 when not supported by the JVM
+     */
+    static long allocatedBytes() {
+        if (GET_THREAD_ALLOCATED_BYTES == null) {
+            return -1;
+        }
+        try {
+            return (Long) GET_THREAD_ALLOCATED_BYTES.invoke(THREAD_BEAN, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
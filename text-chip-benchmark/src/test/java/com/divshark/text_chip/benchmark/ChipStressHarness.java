@@ -0,0 +1,269 @@
+package com.divshark.text_chip.benchmark;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.divshark.text_chip.ChipItem;
+import com.divshark.text_chip.ChipSelectionModel;
+import com.divshark.text_chip.ChipStyle;
+import com.divshark.text_chip.TextChip;
+import com.divshark.text_chip.TextChipAdapter;
+import com.divshark.text_chip.TextChipPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Headless stand-in for a scrolling chip list. Generated chips are bound through a
+ * {@link TextChipAdapter} into a viewport of recycled TextChips; each frame runs a scripted
+ * step, then measures, lays out & draws the viewport like a RecyclerView would. Frames slower
+ * than the frame budget count as overruns. Timings come from the JVM, so overruns are an
+ * estimate to compare between library versions, not device figures.
+ */
+final class ChipStressHarness {
+
+    /**
+     * The scripted changes of a frame
+     */
+    interface FrameScript {
+
+        /**
+         * Returns the number of chip operations run in the frame
+         */
+        int run(int frame);
+    }
+
+    static final int MIN_CHIPS = 1;
+    static final int MAX_CHIPS = 50000;
+
+    // 60 fps
+    static final long FRAME_BUDGET_NANOS = 16666667L;
+
+    // Chips on screen & rows scrolled per frame
+    static final int VIEWPORT_SIZE = 24;
+    static final int SCROLL_STEP = 4;
+
+    private static final int WARMUP_FRAMES = 60;
+    private static final int LABEL_POOL_SIZE = 512;
+
+    private static final String[] SYLLABLES = new String[] {"an", "dro", "id", "ja", "va", "kot", "lin", "gra",
+            "dle", "chip", "text", "ro", "bo", "lec", "tric", "view", "la", "yout", "mea", "sure"};
+    private static final float[] TEXT_SIZES = new float[] {28f, 32f, 36f, 40f, 44f, 48f, 52f, 56f};
+
+    private static final int UNSPECIFIED = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+
+    private final Random mRandom;
+    private final int mChipCount;
+    private final String[] mLabels;
+
+    private final TextChipAdapter mAdapter;
+    private final ChipSelectionModel mSelection;
+
+    // Viewport, mPositions holds the adapter position bound to each holder
+    private final TextChipAdapter.ChipViewHolder[] mHolders;
+    private final int[] mPositions;
+    private final int mVisibleCount;
+    private int mTopHolder;
+    private int mFirstVisible;
+
+    private final Canvas mCanvas;
+    private final List<Object> mPayloads = new ArrayList<>(1);
+
+    ChipStressHarness(Context context, int chipCount, long seed) {
+        if (chipCount < MIN_CHIPS || chipCount > MAX_CHIPS) {
+            throw new IllegalArgumentException("Chip count " + chipCount + " is not within " + MIN_CHIPS
+                    + " and " + MAX_CHIPS);
+        }
+
+        mRandom = new Random(seed);
+        mChipCount = chipCount;
+
+        // One shared style per text size, applied by the adapter like an app's styled rows
+        ChipStyle[] styles = new ChipStyle[TEXT_SIZES.length];
+        for (int i = 0; i < styles.length; i++) {
+            styles[i] = new ChipStyle.Builder(context).setTextSize(TEXT_SIZES[i]).build();
+        }
+
+        // Randomized labels, sizes & colors, the same for every run with the same seed
+        List<ChipItem> items = new ArrayList<>(chipCount);
+        for (int i = 0; i < chipCount; i++) {
+            items.add(new ChipItem(i, randomLabel(), randomColor(), randomColor(),
+                    styles[mRandom.nextInt(styles.length)]));
+        }
+
+        mLabels = new String[LABEL_POOL_SIZE];
+        for (int i = 0; i < LABEL_POOL_SIZE; i++) {
+            mLabels[i] = randomLabel();
+        }
+
+        mAdapter = new TextChipAdapter(new TextChipPool(context, VIEWPORT_SIZE));
+        mAdapter.setItems(items);
+        mSelection = new ChipSelectionModel(chipCount);
+        mAdapter.setSelectionModel(mSelection);
+        mAdapter.registerAdapterDataObserver(new ViewportObserver());
+
+        mVisibleCount = Math.min(VIEWPORT_SIZE, chipCount);
+        mHolders = new TextChipAdapter.ChipViewHolder[mVisibleCount];
+        mPositions = new int[mVisibleCount];
+        for (int i = 0; i < mVisibleCount; i++) {
+            mHolders[i] = mAdapter.onCreateViewHolder(null, 0);
+            bind(i, i);
+        }
+
+        mCanvas = new Canvas(Bitmap.createBitmap(1080, 1920, Bitmap.Config.ARGB_8888));
+    }
+
+    int getChipCount() {
+        return mChipCount;
+    }
+
+    /**
+     * Runs the script for the given frames after a warm up and collects the frame figures
+     */
+    BenchmarkResult run(String name, int frames, FrameScript script) {
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+            script.run(frame);
+            drawViewport();
+        }
+
+        int operations = 0;
+        int overruns = 0;
+        long maxFrameNanos = 0L;
+        long elapsed = 0L;
+
+        long allocatedBefore = BenchmarkRunner.allocatedBytes();
+        for (int frame = 0; frame < frames; frame++) {
+            long start = System.nanoTime();
+            operations += script.run(frame);
+            drawViewport();
+            long frameNanos = System.nanoTime() - start;
+
+            elapsed += frameNanos;
+            maxFrameNanos = Math.max(maxFrameNanos, frameNanos);
+            if (frameNanos > FRAME_BUDGET_NANOS) {
+                overruns++;
+            }
+        }
+        long allocatedAfter = BenchmarkRunner.allocatedBytes();
+
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        BenchmarkResult result = new BenchmarkResult(name, operations, elapsed, allocated, frames, overruns,
+                maxFrameNanos);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Scrolls by {@link #SCROLL_STEP} rows, binding the chips entering the viewport
+     */
+    int scroll(int frame) {
+        for (int i = 0; i < SCROLL_STEP; i++) {
+            int position = (mFirstVisible + mVisibleCount) % mChipCount;
+            bind(mTopHolder, position);
+            mTopHolder = (mTopHolder + 1) % mVisibleCount;
+            mFirstVisible = (mFirstVisible + 1) % mChipCount;
+        }
+        return SCROLL_STEP;
+    }
+
+    /**
+     * Replaces the text of every visible chip, as a filter or live data would
+     */
+    int updateTexts(int frame) {
+        for (int i = 0; i < mVisibleCount; i++) {
+            int position = mPositions[i];
+            ChipItem item = mAdapter.getItem(position);
+            String label = mLabels[(frame * mVisibleCount + i) % LABEL_POOL_SIZE];
+            mAdapter.setItem(position, new ChipItem(item.getId(), label, item.getTextColor(),
+                    item.getBackgroundColor(), item.getChipStyle()));
+        }
+        return mVisibleCount;
+    }
+
+    /**
+     * Toggles a selection, recolors a chip & presses another, inverting the whole selection
+     * once a second
+     */
+    int changeStates(int frame) {
+        int operations = 3;
+
+        mSelection.toggle(mPositions[mRandom.nextInt(mVisibleCount)]);
+
+        int position = mPositions[mRandom.nextInt(mVisibleCount)];
+        mAdapter.setItem(position, mAdapter.getItem(position).withColors(randomColor(), randomColor()));
+
+        TextChip chip = mHolders[mRandom.nextInt(mVisibleCount)].chip;
+        chip.setPressed(!chip.isPressed());
+
+        if (frame % 60 == 59) {
+            mSelection.invert();
+            operations++;
+        }
+        return operations;
+    }
+
+    private void bind(int holder, int position) {
+        mPositions[holder] = position;
+        mAdapter.onBindViewHolder(mHolders[holder], position);
+    }
+
+    private void drawViewport() {
+        for (int i = 0; i < mVisibleCount; i++) {
+            TextChip chip = mHolders[i].chip;
+            if (chip.isLayoutRequested()) {
+                chip.measure(UNSPECIFIED, UNSPECIFIED);
+                chip.layout(0, 0, chip.getMeasuredWidth(), chip.getMeasuredHeight());
+            }
+            chip.draw(mCanvas);
+        }
+    }
+
+    private String randomLabel() {
+        StringBuilder label = new StringBuilder();
+        int syllables = 1 + mRandom.nextInt(4);
+        for (int i = 0; i < syllables; i++) {
+            label.append(SYLLABLES[mRandom.nextInt(SYLLABLES.length)]);
+        }
+        if (mRandom.nextInt(4) == 0) {
+            label.append(' ').append(mRandom.nextInt(1000));
+        }
+        return label.toString();
+    }
+
+    private int randomColor() {
+        return 0xFF000000 | mRandom.nextInt(0x1000000);
+    }
+
+    /**
+     * Rebinds the visible chips of changed items, with the adapter's payload when there is one
+     */
+    private final class ViewportObserver extends RecyclerView.AdapterDataObserver {
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            onItemRangeChanged(positionStart, itemCount, null);
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            for (int i = 0; i < mVisibleCount; i++) {
+                int position = mPositions[i];
+                if (position < positionStart || position >= positionStart + itemCount) {
+                    continue;
+                }
+
+                if (payload == null) {
+                    bind(i, position);
+                } else {
+                    mPayloads.clear();
+                    mPayloads.add(payload);
+                    mAdapter.onBindViewHolder(mHolders[i], position, mPayloads);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.divshark.text_chip.benchmark;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Scripted binds, text updates & state changes over <code>stress.chipCount</code> generated chips
+ * (1 to 50,000, 1,000 by default). Results are written to build/benchmark-results/text-chip-stress.json.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ChipStressTest {
+
+    private static final BenchmarkReport REPORT = new BenchmarkReport("text-chip-stress");
+
+    // Same chips for every run so reports can be diffed
+    private static final long SEED = 42L;
+
+    private static final int FRAMES = 600;
+
+    private ChipStressHarness mHarness;
+
+    @Before
+    public void setUp() throws Exception {
+        int chipCount = Integer.parseInt(System.getProperty("stress.chipCount", "1000"));
+        mHarness = new ChipStressHarness(RuntimeEnvironment.application, chipCount, SEED);
+    }
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        File file = REPORT.write();
+        System.out.println("Stress report written to " + file.getAbsolutePath());
+    }
+
+    @Test
+    public void scrollBinds() throws Exception {
+        // Scroll through every chip once, at least for FRAMES frames
+        int frames = Math.max(FRAMES, mHarness.getChipCount() / ChipStressHarness.SCROLL_STEP);
+        record(mHarness.run(name("bind"), frames, new ChipStressHarness.FrameScript() {
+            @Override
+            public int run(int frame) {
+                return mHarness.scroll(frame);
+            }
+        }));
+    }
+
+    @Test
+    public void textUpdates() throws Exception {
+        record(mHarness.run(name("setText"), FRAMES, new ChipStressHarness.FrameScript() {
+            @Override
+            public int run(int frame) {
+                return mHarness.updateTexts(frame);
+            }
+        }));
+    }
+
+    @Test
+    public void stateChanges() throws Exception {
+        record(mHarness.run(name("state"), FRAMES, new ChipStressHarness.FrameScript() {
+            @Override
+            public int run(int frame) {
+                return mHarness.changeStates(frame);
+            }
+        }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void chipCount_outOfRange() throws Exception {
+        new ChipStressHarness(RuntimeEnvironment.application, ChipStressHarness.MAX_CHIPS + 1, SEED);
+    }
+
+    private String name(String operation) {
+        return "stress." + operation + "[chips=" + mHarness.getChipCount() + "]";
+    }
+
+    private static void record(BenchmarkResult result) {
+        assertTrue(result.getOpsPerSecond() > 0);
+        assertTrue(result.frameBudgetOverruns <= result.frames);
+        assertTrue(result.frames > 0);
+        REPORT.add(result);
+    }
+}
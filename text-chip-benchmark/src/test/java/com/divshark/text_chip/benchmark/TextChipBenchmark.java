@@ -0,0 +1,135 @@
+package com.divshark.text_chip.benchmark;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import com.divshark.text_chip.DeviceDimensionsHelper;
+import com.divshark.text_chip.TextChip;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JVM benchmarks for the TextChip construction, bounds, measure & draw paths.
+ * Results are written to build/benchmark-results/text-chip.json.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class TextChipBenchmark {
+
+    private static final BenchmarkReport REPORT = new BenchmarkReport("text-chip");
+
+    private static final String[] LABELS = new String[] {"Android", "Java", "Kotlin", "Gradle", "Robolectric", "Text Chip"};
+
+    private Context mContext;
+    private TextChip mChip;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = RuntimeEnvironment.application;
+        mChip = new TextChip(mContext, "Benchmark");
+    }
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        File file = REPORT.write();
+        System.out.println("Benchmark report written to " + file.getAbsolutePath());
+    }
+
+    @Test
+    public void construction() throws Exception {
+        record(BenchmarkRunner.run("TextChip.<init>", 500, 5000, new BenchmarkRunner.Operation() {
+            @Override
+            public void run(int iteration) {
+                new TextChip(mContext, LABELS[iteration % LABELS.length]);
+            }
+        }));
+    }
+
+    @Test
+    public void setText_computeBounds() throws Exception {
+        record(BenchmarkRunner.run("TextChip.setText", new BenchmarkRunner.Operation() {
+            @Override
+            public void run(int iteration) {
+                mChip.setText(LABELS[iteration % LABELS.length]);
+            }
+        }));
+    }
+
+    @Test
+    public void onMeasure_exactly() throws Exception {
+        measure("TextChip.onMeasure[EXACTLY]", View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY));
+    }
+
+    @Test
+    public void onMeasure_atMost() throws Exception {
+        measure("TextChip.onMeasure[AT_MOST]", View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.AT_MOST));
+    }
+
+    @Test
+    public void onMeasure_unspecified() throws Exception {
+        measure("TextChip.onMeasure[UNSPECIFIED]", View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+    }
+
+    @Test
+    public void onDraw() throws Exception {
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mChip.measure(spec, spec);
+        mChip.layout(0, 0, mChip.getMeasuredWidth(), mChip.getMeasuredHeight());
+
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(mChip.getWidth(), mChip.getHeight(), Bitmap.Config.ARGB_8888));
+        record(BenchmarkRunner.run("TextChip.onDraw", new BenchmarkRunner.Operation() {
+            @Override
+            public void run(int iteration) {
+                mChip.draw(canvas);
+            }
+        }));
+    }
+
+    @Test
+    public void convertDpToPixel() throws Exception {
+        record(BenchmarkRunner.run("DeviceDimensionsHelper.convertDpToPixel", new BenchmarkRunner.Operation() {
+            @Override
+            public void run(int iteration) {
+                DeviceDimensionsHelper.convertDpToPixel(iteration, mContext);
+            }
+        }));
+    }
+
+    @Test
+    public void convertPixelsToDp() throws Exception {
+        record(BenchmarkRunner.run("DeviceDimensionsHelper.convertPixelsToDp", new BenchmarkRunner.Operation() {
+            @Override
+            public void run(int iteration) {
+                DeviceDimensionsHelper.convertPixelsToDp(iteration, mContext);
+            }
+        }));
+    }
+
+    private void measure(String name, final int widthMeasureSpec) {
+        final int heightMeasureSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        record(BenchmarkRunner.run(name, new BenchmarkRunner.Operation() {
+            @Override
+            public void run(int iteration) {
+                mChip.forceLayout();
+                mChip.measure(widthMeasureSpec, heightMeasureSpec);
+            }
+        }));
+    }
+
+    private static void record(BenchmarkResult result) {
+        assertTrue(result.getOpsPerSecond() > 0);
+        REPORT.add(result);
+    }
+}
@@ -0,0 +1,87 @@
+package com.divshark.text_chip;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+/**
+ * Compares ChipGroup measure & layout time against nested LinearLayouts
+ */
+public class ChipGroupBenchmark extends AndroidTestCase {
+
+    private static final String TAG = ChipGroupBenchmark.class.getSimpleName();
+
+    private static final int WIDTH = 1080;
+    private static final int CHIPS_PER_ROW = 6;
+    private static final int ITERATIONS = 10;
+
+    public void test100Chips() throws Exception {
+        compare(100);
+    }
+
+    public void test1000Chips() throws Exception {
+        compare(1000);
+    }
+
+    public void test5000Chips() throws Exception {
+        compare(5000);
+    }
+
+    private void compare(int chipCount) {
+        ChipGroup group = new ChipGroup(getContext());
+        for (int i = 0; i < chipCount; i++) {
+            group.addView(new TextChip(getContext(), "Chip " + i));
+        }
+
+        // Wrapping emulated with a vertical LinearLayout of horizontal rows
+        LinearLayout nested = new LinearLayout(getContext());
+        nested.setOrientation(LinearLayout.VERTICAL);
+        LinearLayout row = null;
+        for (int i = 0; i < chipCount; i++) {
+            if (i % CHIPS_PER_ROW == 0) {
+                row = new LinearLayout(getContext());
+                row.setOrientation(LinearLayout.HORIZONTAL);
+                nested.addView(row);
+            }
+            row.addView(new TextChip(getContext(), "Chip " + i));
+        }
+
+        long groupNanos = measureAndLayout(group);
+        long nestedNanos = measureAndLayout(nested);
+
+        Log.i(TAG, String.format("%d chips: ChipGroup %.3f ms, nested LinearLayout %.3f ms",
+                chipCount, groupNanos / 1e6, nestedNanos / 1e6));
+
+        assertTrue(group.getMeasuredHeight() > 0);
+    }
+
+    private static long measureAndLayout(ViewGroup root) {
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+
+        // Warm up
+        root.measure(widthSpec, heightSpec);
+        root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            root.forceLayout();
+            forceLayoutChildren(root);
+            root.measure(widthSpec, heightSpec);
+            root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static void forceLayoutChildren(ViewGroup parent) {
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            child.forceLayout();
+            if (child instanceof ViewGroup) {
+                forceLayoutChildren((ViewGroup) child);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.test.AndroidTestCase;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Verifies how ChipGroup wraps, spaces & limits its rows, honors child margins
+ * and measures each child once per pass
+ */
+public class ChipGroupLayoutTest extends AndroidTestCase {
+
+    private static final int CHILD_WIDTH = 100;
+    private static final int CHILD_HEIGHT = 40;
+    private static final int ITEM_SPACING = 10;
+    private static final int LINE_SPACING = 5;
+
+    // Fits two children & the spacing between them per row
+    private static final int GROUP_WIDTH = 250;
+
+    public void testChildren_wrapIntoSpacedRows() throws Exception {
+        ChipGroup group = createGroup(5);
+        measureAndLayout(group);
+
+        int[] lefts = {0, 110, 0, 110, 0};
+        int[] tops = {0, 0, 45, 45, 90};
+        for (int i = 0; i < lefts.length; i++) {
+            View child = group.getChildAt(i);
+            assertEquals(lefts[i], child.getLeft());
+            assertEquals(tops[i], child.getTop());
+            assertEquals(CHILD_WIDTH, child.getWidth());
+            assertEquals(CHILD_HEIGHT, child.getHeight());
+        }
+        assertEquals(3 * CHILD_HEIGHT + 2 * LINE_SPACING, group.getMeasuredHeight());
+        assertEquals(2 * CHILD_WIDTH + ITEM_SPACING, group.getMeasuredWidth());
+    }
+
+    public void testChildrenPastMaxLines_areHiddenWithZeroBounds() throws Exception {
+        ChipGroup group = createGroup(5);
+        group.setMaxLines(2);
+        measureAndLayout(group);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(CHILD_WIDTH, group.getChildAt(i).getWidth());
+        }
+
+        View hidden = group.getChildAt(4);
+        assertEquals(0, hidden.getLeft());
+        assertEquals(0, hidden.getTop());
+        assertEquals(0, hidden.getRight());
+        assertEquals(0, hidden.getBottom());
+        assertEquals(2 * CHILD_HEIGHT + LINE_SPACING, group.getMeasuredHeight());
+    }
+
+    public void testEachChild_isMeasuredOncePerPass() throws Exception {
+        ChipGroup group = createGroup(20);
+        measureAndLayout(group);
+
+        for (int i = 0; i < group.getChildCount(); i++) {
+            assertEquals(1, ((FixedSizeView) group.getChildAt(i)).measures);
+        }
+
+        // Measuring stops at the first child which does not fit in the max lines
+        ChipGroup limited = createGroup(20);
+        limited.setMaxLines(1);
+        measureAndLayout(limited);
+
+        for (int i = 0; i < limited.getChildCount(); i++) {
+            assertEquals(i <= 2 ? 1 : 0, ((FixedSizeView) limited.getChildAt(i)).measures);
+        }
+    }
+
+    public void testMargins_offsetAndSeparateChips() throws Exception {
+        ChipGroup group = new ChipGroup(getContext());
+        group.setItemSpacing(0);
+
+        TextChip first = new TextChip(getContext(), "First");
+        TextChip second = new TextChip(getContext(), "Second");
+        ViewGroup.MarginLayoutParams params = new ViewGroup.MarginLayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        params.leftMargin = 10;
+        params.topMargin = 6;
+        params.rightMargin = 20;
+        params.bottomMargin = 8;
+        group.addView(first, params);
+        group.addView(second);
+
+        int spec = View.MeasureSpec.makeMeasureSpec(2000, View.MeasureSpec.AT_MOST);
+        group.measure(spec, View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        group.layout(0, 0, group.getMeasuredWidth(), group.getMeasuredHeight());
+
+        assertEquals(10, first.getLeft());
+        assertEquals(6, first.getTop());
+        assertEquals(first.getRight() + 20, second.getLeft());
+        assertTrue(group.getMeasuredHeight() >= first.getBottom() + 8);
+        assertTrue(second.getLayoutParams() instanceof ViewGroup.MarginLayoutParams);
+    }
+
+    public void testMaxLines_belowOne_isRejected() throws Exception {
+        ChipGroup group = new ChipGroup(getContext());
+        try {
+            group.setMaxLines(0);
+            fail("Max lines of 0 should be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(Integer.MAX_VALUE, group.getMaxLines());
+    }
+
+    private ChipGroup createGroup(int childCount) {
+        ChipGroup group = new ChipGroup(getContext());
+        group.setItemSpacing(ITEM_SPACING);
+        group.setLineSpacing(LINE_SPACING);
+        for (int i = 0; i < childCount; i++) {
+            group.addView(new FixedSizeView(getContext()));
+        }
+        return group;
+    }
+
+    private static void measureAndLayout(ChipGroup group) {
+        group.measure(View.MeasureSpec.makeMeasureSpec(GROUP_WIDTH, View.MeasureSpec.AT_MOST),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        group.layout(0, 0, group.getMeasuredWidth(), group.getMeasuredHeight());
+    }
+
+    /**
+     * Child of a fixed size which counts how often it is measured
+     */
+    private static final class FixedSizeView extends View {
+        int measures;
+
+        FixedSizeView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            measures++;
+            setMeasuredDimension(CHILD_WIDTH, CHILD_HEIGHT);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.divshark.text_chip;
+
+import android.test.AndroidTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies that precomputed chip layouts match a synchronous computeBounds()
+ */
+public class ChipLayoutTest extends AndroidTestCase {
+
+    private static final List<String> LABELS = Arrays.asList("Android", "  padded  ", "Text Chip", "a", "Mixed Case Label");
+
+    private ExecutorService mExecutor;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mExecutor.shutdownNow();
+        super.tearDown();
+    }
+
+    public void testAdoptedLayout_matchesComputeBounds() throws Exception {
+        TextChip template = new TextChip(getContext(), "Template");
+        List<ChipLayout> layouts = precompute(template, LABELS);
+
+        assertEquals(LABELS.size(), layouts.size());
+
+        TextChip adopted = new TextChip(getContext(), "Adopted");
+        TextChip measured = new TextChip(getContext(), "Measured");
+        for (int i = 0; i < LABELS.size(); i++) {
+            adopted.setChipLayout(layouts.get(i));
+            measured.setText(LABELS.get(i));
+
+            assertEquals(measured.getChipLayout(), adopted.getChipLayout());
+            assertEquals(measured.getText(), adopted.getText());
+        }
+    }
+
+    public void testMismatchedStyle_fallsBackToMeasuring() throws Exception {
+        TextChip template = new TextChip(getContext(), "Template");
+        List<ChipLayout> layouts = precompute(template, LABELS);
+
+        TextChip chip = new TextChip(getContext(), "Larger");
+        chip.setTextSize(template.getTextSize() * 2f);
+        chip.setChipLayout(layouts.get(0));
+
+        TextChip measured = new TextChip(getContext(), "Measured");
+        measured.setTextSize(template.getTextSize() * 2f);
+        measured.setText(LABELS.get(0));
+
+        assertEquals(measured.getChipLayout(), chip.getChipLayout());
+    }
+
+    public void testCancelledTask_doesNotDeliver() throws Exception {
+        final List<Runnable> pending = new ArrayList<>();
+        Executor deferred = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                pending.add(command);
+            }
+        };
+
+        final AtomicReference<List<ChipLayout>> result = new AtomicReference<>();
+        TextChip template = new TextChip(getContext(), "Template");
+        ChipLayout.Task task = ChipLayout.precompute(template, LABELS, deferred, new ChipLayout.Callback() {
+            @Override
+            public void onLayoutsComputed(List<ChipLayout> layouts) {
+                result.set(layouts);
+            }
+        });
+
+        task.cancel();
+        assertTrue(task.isCancelled());
+
+        pending.get(0).run();
+        Thread.sleep(100);
+
+        assertNull(result.get());
+    }
+
+    private List<ChipLayout> precompute(TextChip template, List<String> labels) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<List<ChipLayout>> result = new AtomicReference<>();
+
+        ChipLayout.precompute(template, labels, mExecutor, new ChipLayout.Callback() {
+            @Override
+            public void onLayoutsComputed(List<ChipLayout> layouts) {
+                result.set(layouts);
+                latch.countDown();
+            }
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        return result.get();
+    }
+}
@@ -0,0 +1,53 @@
+package com.divshark.text_chip;
+
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.test.AndroidTestCase;
+
+/**
+ * Verifies chips share their painters until they are customized
+ */
+public class ChipPaintRegistryTest extends AndroidTestCase {
+
+    public void testSameStyle_sharesPaints() throws Exception {
+        TextChip first = new TextChip(getContext(), "First");
+        TextChip second = new TextChip(getContext(), "Second");
+
+        assertSame(first.getTextPaint(), second.getTextPaint());
+    }
+
+    public void testCustomizedChip_copiesPaint() throws Exception {
+        TextChip first = new TextChip(getContext(), "First");
+        TextChip second = new TextChip(getContext(), "Second");
+        int textColor = second.getTextColor();
+
+        first.setTextColor(Color.RED);
+
+        assertNotSame(first.getTextPaint(), second.getTextPaint());
+        assertEquals(Color.RED, first.getTextPaint().getColor());
+        assertEquals(textColor, second.getTextPaint().getColor());
+    }
+
+    public void testReset_returnsToSharedPaint() throws Exception {
+        TextChip fresh = new TextChip(getContext(), "Fresh");
+        TextChip chip = new TextChip(getContext(), "Chip");
+        chip.setTextSize(fresh.getTextSize() * 2f);
+
+        chip.resetToDefaults();
+
+        assertSame(fresh.getTextPaint(), chip.getTextPaint());
+    }
+
+    public void testFontFamily_loadedOnce() throws Exception {
+        TextChip first = new TextChip(getContext(), "First");
+        TextChip second = new TextChip(getContext(), "Second");
+
+        first.setFontFamily("sans-serif-medium");
+        second.setFontFamily("sans-serif-medium");
+
+        Typeface typeface = first.getTypeface();
+        assertNotNull(typeface);
+        assertSame(typeface, second.getTypeface());
+        assertSame(typeface, first.getTextPaint().getTypeface());
+    }
+}
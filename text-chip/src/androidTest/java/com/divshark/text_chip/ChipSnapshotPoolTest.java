@@ -0,0 +1,69 @@
+package com.divshark.text_chip;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.test.AndroidTestCase;
+import android.view.View;
+
+/**
+ * Verifies snapshot sharing & invalidation for chips in snapshot mode
+ */
+public class ChipSnapshotPoolTest extends AndroidTestCase {
+
+    private ChipSnapshotPool mPool;
+    private Canvas mCanvas;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mPool = ChipSnapshotPool.getInstance();
+        mPool.clear();
+        mCanvas = new Canvas(Bitmap.createBitmap(1024, 256, Bitmap.Config.ARGB_8888));
+    }
+
+    public void testIdenticalChips_shareSnapshot() throws Exception {
+        int hits = mPool.getHitCount();
+        int misses = mPool.getMissCount();
+
+        newSnapshotChip("Shared").draw(mCanvas);
+        newSnapshotChip("Shared").draw(mCanvas);
+
+        assertEquals(misses + 1, mPool.getMissCount());
+        assertEquals(hits + 1, mPool.getHitCount());
+    }
+
+    public void testRepeatedFrames_doNotQueryPool() throws Exception {
+        TextChip chip = newSnapshotChip("Frames");
+        chip.draw(mCanvas);
+
+        int lookups = mPool.getHitCount() + mPool.getMissCount();
+        for (int i = 0; i < 10; i++) {
+            chip.draw(mCanvas);
+        }
+
+        assertEquals(lookups, mPool.getHitCount() + mPool.getMissCount());
+    }
+
+    public void testSetter_invalidatesSnapshot() throws Exception {
+        TextChip chip = newSnapshotChip("Setter");
+        chip.draw(mCanvas);
+
+        int misses = mPool.getMissCount();
+        chip.setBackgroundColor(Color.RED);
+        chip.draw(mCanvas);
+
+        assertEquals(misses + 1, mPool.getMissCount());
+    }
+
+    private TextChip newSnapshotChip(String text) {
+        TextChip chip = new TextChip(getContext(), text);
+        chip.setSnapshotEnabled(true);
+
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        chip.measure(spec, spec);
+        chip.layout(0, 0, chip.getMeasuredWidth(), chip.getMeasuredHeight());
+        return chip;
+    }
+}
@@ -0,0 +1,107 @@
+package com.divshark.text_chip;
+
+import android.test.AndroidTestCase;
+import android.view.View;
+
+import java.util.AbstractList;
+
+/**
+ * Verifies the visible window & hit testing of the ChipStripView
+ */
+public class ChipStripViewTest extends AndroidTestCase {
+
+    private static final int LABEL_COUNT = 50000;
+    private static final int WIDTH = 1080;
+
+    private ChipStripView mStrip;
+    private CountingLabels mLabels;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mLabels = new CountingLabels();
+        mStrip = new ChipStripView(getContext());
+
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mStrip.measure(widthSpec, heightSpec);
+        mStrip.layout(0, 0, mStrip.getMeasuredWidth(), mStrip.getMeasuredHeight());
+
+        mStrip.setLabels(mLabels);
+    }
+
+    public void testOnlyVisibleLabelsAreRead() throws Exception {
+        assertTrue(mStrip.getVisibleCount() > 0);
+        assertTrue(mStrip.getVisibleCount() < 100);
+        assertTrue(mLabels.reads < 200);
+    }
+
+    public void testScrolling_movesTheVisibleWindow() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            mStrip.scrollChipsBy(WIDTH);
+        }
+
+        assertTrue(mStrip.getFirstVisibleIndex() > 0);
+        assertTrue(mLabels.reads < LABEL_COUNT);
+
+        int first = mStrip.getFirstVisibleIndex();
+        mStrip.scrollChipsBy(-WIDTH * 1000);
+        assertEquals(0, mStrip.getFirstVisibleIndex());
+        assertTrue(first > 0);
+    }
+
+    public void testSmallScrolls_readOnlyEnteringLabels() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            mStrip.scrollChipsBy(WIDTH);
+        }
+        int reads = mLabels.reads;
+
+        // Chips staying in view keep their cached texts & widths
+        for (int i = 0; i < 10; i++) {
+            mStrip.scrollChipsBy(1);
+        }
+        assertTrue(mLabels.reads - reads <= 10);
+    }
+
+    public void testScrollingThroughAllLabels_keepsBuffersAtViewportSize() throws Exception {
+        int maxVisible = mStrip.getVisibleCount();
+        while (mStrip.getFirstVisibleIndex() + mStrip.getVisibleCount() < LABEL_COUNT) {
+            mStrip.scrollChipsBy(WIDTH);
+            maxVisible = Math.max(maxVisible, mStrip.getVisibleCount());
+        }
+        assertTrue(mStrip.getWindowCapacity() <= 2 * maxVisible);
+
+        mStrip.scrollChipsBy(-WIDTH * 1000);
+        assertTrue(mStrip.getWindowCapacity() <= 2 * maxVisible);
+    }
+
+    public void testHitTesting_mapsToLabelIndex() throws Exception {
+        float y = mStrip.getHeight() / 2f;
+
+        assertEquals(0, mStrip.getIndexAt(mStrip.getPaddingLeft() + 1, y));
+        assertEquals(-1, mStrip.getIndexAt(1, mStrip.getHeight() + 10));
+
+        mStrip.scrollChipsBy(WIDTH * 10);
+        int index = mStrip.getIndexAt(mStrip.getPaddingLeft() + 1, y);
+        assertTrue(index == -1 || index >= mStrip.getFirstVisibleIndex());
+    }
+
+    /**
+     * Generates labels lazily and counts how many are read
+     */
+    private static final class CountingLabels extends AbstractList<String> {
+        int reads;
+
+        @Override
+        public String get(int index) {
+            reads++;
+            return "Label " + (index % 500);
+        }
+
+        @Override
+        public int size() {
+            return LABEL_COUNT;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.divshark.text_chip;
+
+import android.graphics.Color;
+import android.test.AndroidTestCase;
+
+/**
+ * Verifies compiled styles are applied to chips in full
+ */
+public class ChipStyleTest extends AndroidTestCase {
+
+    public void testStringConstructor_usesDefaultStyle() throws Exception {
+        ChipStyle style = ChipStyle.getDefault(getContext());
+
+        TextChip chip = new TextChip(getContext(), "Chip");
+
+        assertEquals(style.getTextColor(), chip.getTextColor());
+        assertEquals(style.getBackgroundColor(), chip.getBackgroundColor());
+        assertEquals(style.getTextSize(), chip.getTextSize(), 0f);
+        assertSame(style.textPaint, chip.getTextPaint());
+        assertSame(style, ChipStyle.getDefault(getContext()));
+    }
+
+    public void testBuiltStyle_appliedThroughConstructor() throws Exception {
+        ChipStyle style = new ChipStyle.Builder(getContext())
+                .setTextColor(Color.WHITE)
+                .setBackgroundColor(Color.BLUE)
+                .setUpperCase(false)
+                .setMaxChars(4)
+                .build();
+
+        TextChip chip = new TextChip(getContext(), "Styled", style);
+
+        assertEquals(Color.WHITE, chip.getTextColor());
+        assertEquals(Color.BLUE, chip.getBackgroundColor());
+        assertFalse(chip.isUpperCase());
+        assertEquals(4, chip.getMaxChars());
+        assertEquals("Styled", chip.getText());
+    }
+
+    public void testSetChipStyle_sharesPaintsBetweenChips() throws Exception {
+        ChipStyle style = new ChipStyle.Builder(getContext())
+                .setTextColor(Color.RED)
+                .build();
+        TextChip first = new TextChip(getContext(), "First");
+        TextChip second = new TextChip(getContext(), "Second");
+        first.setTextSize(first.getTextSize() * 2f);
+
+        first.setChipStyle(style);
+        second.setChipStyle(style);
+
+        assertEquals(style.getTextSize(), first.getTextSize(), 0f);
+        assertSame(first.getTextPaint(), second.getTextPaint());
+        assertEquals(Color.RED, first.getTextPaint().getColor());
+    }
+
+    public void testSetChipStyle_appliesCase() throws Exception {
+        TextChip chip = new TextChip(getContext(), "Chip");
+
+        chip.setChipStyle(new ChipStyle.Builder(getContext()).setUpperCase(false).build());
+
+        assertEquals("Chip", chip.getText());
+    }
+}
@@ -0,0 +1,178 @@
+package com.divshark.text_chip;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Debug;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.test.AndroidTestCase;
+import android.util.Log;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scrolls a chip list through the TextChipAdapter and reports allocations per frame
+ */
+public class TextChipAdapterScrollBenchmark extends AndroidTestCase {
+
+    private static final String TAG = TextChipAdapterScrollBenchmark.class.getSimpleName();
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int ITEMS = 1000;
+    private static final int FRAMES = 300;
+    private static final int SCROLL_PER_FRAME = 40;
+
+    private static final String[] LABELS = new String[] {"Android", "Java", "Kotlin", "Gradle", "Text Chip", "RecyclerView"};
+
+    private TextChipPool mPool;
+    private TextChipAdapter mAdapter;
+    private RecyclerView mRecyclerView;
+    private Canvas mCanvas;
+
+    // Bounds computations seen by the metrics listener
+    private int mBoundsComputations;
+
+    // Restored after each test
+    private boolean mMetricsEnabled;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mMetricsEnabled = ChipMetrics.isEnabled();
+
+        List<ChipItem> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new ChipItem(i, LABELS[i % LABELS.length] + " " + (i % 20), Color.BLACK, Color.LTGRAY));
+        }
+
+        mPool = new TextChipPool(getContext());
+        mAdapter = new TextChipAdapter(mPool);
+        mAdapter.setItems(items);
+
+        mRecyclerView = new RecyclerView(getContext());
+        mRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        mRecyclerView.setAdapter(mAdapter);
+        layout();
+
+        mCanvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+
+        ChipMetrics.setListener(new ChipMetrics.Listener() {
+            @Override
+            public void onStage(int stage, long durationNanos) {
+                if (stage == ChipMetrics.STAGE_COMPUTE_BOUNDS) {
+                    mBoundsComputations++;
+                }
+            }
+
+            @Override
+            public void onPropertyChanged(String property, boolean layoutRequested) {
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ChipMetrics.setEnabled(mMetricsEnabled);
+        ChipMetrics.setListener(null);
+        super.tearDown();
+    }
+
+    @SuppressWarnings("deprecation")
+    public void testScroll_allocationsPerFrame() throws Exception {
+        // Warm up the view holders & the measurement cache
+        scroll(FRAMES);
+        mRecyclerView.scrollToPosition(0);
+        layout();
+
+        Debug.startAllocCounting();
+        Debug.resetThreadAllocCount();
+        long start = System.nanoTime();
+        try {
+            scroll(FRAMES);
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        long frameNanos = (System.nanoTime() - start) / FRAMES;
+        int allocations = Debug.getThreadAllocCount();
+        int bytes = Debug.getThreadAllocSize();
+
+        Log.i(TAG, String.format("%d frames: %.1f allocations (%d bytes) per frame, %.3f ms per frame, %d chips created",
+                FRAMES, allocations / (float) FRAMES, bytes / FRAMES, frameNanos / 1e6, mPool.getCreatedCount()));
+
+        assertTrue(mRecyclerView.getChildCount() > 0);
+    }
+
+    public void testColorOnlyUpdate_skipsMeasurePath() throws Exception {
+        ChipMetrics.setEnabled(true);
+
+        ChipItem item = mAdapter.getItem(0);
+        mBoundsComputations = 0;
+
+        mAdapter.setItem(0, item.withColors(Color.WHITE, Color.BLUE));
+        layout();
+
+        TextChipAdapter.ChipViewHolder holder =
+                (TextChipAdapter.ChipViewHolder) mRecyclerView.findViewHolderForItemId(item.getId());
+        assertEquals(Color.WHITE, holder.chip.getTextColor());
+        assertEquals(Color.BLUE, holder.chip.getBackgroundColor());
+        assertEquals(0, mBoundsComputations);
+    }
+
+    public void testTextUpdate_rebindsText() throws Exception {
+        ChipItem item = mAdapter.getItem(0);
+
+        mAdapter.setItem(0, new ChipItem(item.getId(), "Renamed", item.getTextColor(), item.getBackgroundColor()));
+        layout();
+
+        TextChipAdapter.ChipViewHolder holder =
+                (TextChipAdapter.ChipViewHolder) mRecyclerView.findViewHolderForItemId(item.getId());
+        assertEquals("RENAMED", holder.chip.getText());
+    }
+
+    public void testStyledItem_appliesStyleAndColorsInOnePass() throws Exception {
+        ChipMetrics.setEnabled(true);
+
+        ChipItem item = mAdapter.getItem(0);
+        float textSize = ChipStyle.getDefault(getContext()).getTextSize() * 2f;
+        ChipStyle style = new ChipStyle.Builder(getContext()).setTextSize(textSize).build();
+        mBoundsComputations = 0;
+
+        mAdapter.setItem(0, new ChipItem(item.getId(), item.getText(), Color.WHITE, Color.BLUE, style));
+        layout();
+
+        TextChipAdapter.ChipViewHolder holder =
+                (TextChipAdapter.ChipViewHolder) mRecyclerView.findViewHolderForItemId(item.getId());
+        assertEquals(textSize, holder.chip.getTextSize(), 0f);
+        assertEquals(Color.WHITE, holder.chip.getTextColor());
+        assertEquals(Color.BLUE, holder.chip.getBackgroundColor());
+        assertEquals(1, mBoundsComputations);
+    }
+
+    public void testDetachingAdapter_releasesChipsToThePool() throws Exception {
+        scroll(10);
+        assertEquals(0, mPool.size());
+
+        mRecyclerView.setAdapter(null);
+
+        assertTrue(mPool.size() > 0);
+        assertEquals(0, mRecyclerView.getChildCount());
+    }
+
+    private void scroll(int frames) {
+        for (int i = 0; i < frames; i++) {
+            mRecyclerView.scrollBy(0, SCROLL_PER_FRAME);
+            mRecyclerView.draw(mCanvas);
+        }
+    }
+
+    private void layout() {
+        mRecyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRecyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+}
@@ -0,0 +1,113 @@
+package com.divshark.text_chip;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.test.AndroidTestCase;
+import android.view.View;
+
+/**
+ * Guards the TextChip draw & bounds hot paths against object allocation
+ */
+public class TextChipAllocationTest extends AndroidTestCase {
+
+    private static final int ITERATIONS = 500;
+
+    private TextChip mChip;
+    private Canvas mCanvas;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mChip = new TextChip(getContext(), "Allocation");
+
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mChip.measure(spec, spec);
+        mChip.layout(0, 0, mChip.getMeasuredWidth(), mChip.getMeasuredHeight());
+
+        mCanvas = new Canvas(Bitmap.createBitmap(mChip.getWidth(), mChip.getHeight(), Bitmap.Config.ARGB_8888));
+    }
+
+    public void testConstructorWithText_initializesPainters() throws Exception {
+        // Used to throw a NullPointerException in computeBounds()
+        assertEquals("ALLOCATION", mChip.getText());
+        assertTrue(mChip.getMeasuredWidth() > 0);
+        assertTrue(mChip.getMeasuredHeight() > 0);
+    }
+
+    public void testOnDraw_doesNotAllocate() throws Exception {
+        // Warm up
+        mChip.draw(mCanvas);
+
+        int allocations = countAllocations(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    mChip.draw(mCanvas);
+                }
+            }
+        });
+
+        assertEquals(0, allocations);
+    }
+
+    public void testComputeBounds_doesNotAllocateForMeasuredText() throws Exception {
+        final float small = mChip.getTextSize();
+        final float large = small * 2f;
+
+        // Warm up the measurement cache for both sizes
+        mChip.setTextSize(large);
+        mChip.setTextSize(small);
+
+        int allocations = countAllocations(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    mChip.setTextSize(i % 2 == 0 ? large : small);
+                }
+            }
+        });
+
+        assertEquals(0, allocations);
+    }
+
+    public void testSetText_reusedStringBuilder_doesNotAllocate() throws Exception {
+        final StringBuilder builder = new StringBuilder(64);
+        builder.append("Typing");
+
+        // Warm up the char buffer
+        mChip.setText(builder);
+
+        int allocations = countAllocations(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    // Type & delete a char, the way an editable buffer changes
+                    if (i % 2 == 0) {
+                        builder.append('s');
+                    } else {
+                        builder.setLength(builder.length() - 1);
+                    }
+                    mChip.setText(builder);
+                    mChip.draw(mCanvas);
+                }
+            }
+        });
+
+        assertEquals(0, allocations);
+        assertEquals("TYPING", mChip.getText());
+    }
+
+    @SuppressWarnings("deprecation")
+    private static int countAllocations(Runnable runnable) {
+        Debug.startAllocCounting();
+        Debug.resetThreadAllocCount();
+        try {
+            runnable.run();
+            return Debug.getThreadAllocCount();
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+}
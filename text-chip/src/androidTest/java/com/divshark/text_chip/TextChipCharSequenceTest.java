@@ -0,0 +1,99 @@
+package com.divshark.text_chip;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.test.AndroidTestCase;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+import android.view.View;
+
+/**
+ * Verifies CharSequence & spanned text is measured and drawn like String text
+ */
+public class TextChipCharSequenceTest extends AndroidTestCase {
+
+    private TextChip mChip;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mChip = new TextChip(getContext(), "CHIP");
+        mChip.setUpperCase(true);
+        measureAndLayout();
+    }
+
+    public void testStringBuilder_measuresLikeString() throws Exception {
+        mChip.setText("Text chip");
+        measureAndLayout();
+        int stringWidth = mChip.getMeasuredWidth();
+
+        mChip.setText(new StringBuilder("Text chip"));
+        measureAndLayout();
+
+        assertEquals("TEXT CHIP", mChip.getText());
+        assertEquals(stringWidth, mChip.getMeasuredWidth());
+    }
+
+    public void testSameContent_doesNotRequestLayout() throws Exception {
+        SpannableStringBuilder editable = new SpannableStringBuilder("Typing");
+        mChip.setText(editable);
+        measureAndLayout();
+
+        mChip.setText(new SpannableStringBuilder("Typing"));
+        assertFalse(mChip.isLayoutRequested());
+
+        editable.append(" more");
+        mChip.setText(editable);
+        assertTrue(mChip.isLayoutRequested());
+    }
+
+    public void testSpannedText_keepsStylesAndDraws() throws Exception {
+        SpannableStringBuilder text = new SpannableStringBuilder("bold red");
+        text.setSpan(new StyleSpan(Typeface.BOLD), 0, 4, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        text.setSpan(new ForegroundColorSpan(Color.RED), 5, 8, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+        mChip.setText(text);
+        measureAndLayout();
+
+        assertEquals("BOLD RED", mChip.getText());
+        assertTrue(mChip.getMeasuredWidth() > 0);
+
+        Canvas canvas = new Canvas(Bitmap.createBitmap(mChip.getWidth(), mChip.getHeight(), Bitmap.Config.ARGB_8888));
+        mChip.draw(canvas);
+    }
+
+    public void testSpannedText_isEllipsized() throws Exception {
+        SpannableStringBuilder text = new SpannableStringBuilder("A much longer chip label");
+        text.setSpan(new StyleSpan(Typeface.BOLD), 0, 6, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+        mChip.setText(text);
+        mChip.setMaxChars(6);
+
+        assertTrue(mChip.getChipLayout().getDisplayText().endsWith(TextMeasureCache.ELLIPSIS));
+    }
+
+    public void testSpannedText_drawsTheNewTextColor() throws Exception {
+        SpannableStringBuilder text = new SpannableStringBuilder("bold text");
+        text.setSpan(new StyleSpan(Typeface.BOLD), 0, 4, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+        mChip.setText(text);
+        measureAndLayout();
+
+        // Only the color changes, the bounds are not recomputed
+        mChip.setTextColor(Color.BLUE);
+
+        assertSame(mChip.getTextPaint(), mChip.getSpannedLayout().getPaint());
+        assertEquals(Color.BLUE, mChip.getSpannedLayout().getPaint().getColor());
+    }
+
+    private void measureAndLayout() {
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mChip.measure(spec, spec);
+        mChip.layout(0, 0, mChip.getMeasuredWidth(), mChip.getMeasuredHeight());
+    }
+}
@@ -0,0 +1,116 @@
+package com.divshark.text_chip;
+
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.test.AndroidTestCase;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
+import android.view.View;
+
+/**
+ * Verifies the checked state of a chip and its colors
+ */
+public class TextChipCheckedTest extends AndroidTestCase {
+
+    public void testChecked_drawsCheckedColors() throws Exception {
+        TextChip chip = new TextChip(getContext(), "Chip");
+        chip.setCheckedTextColor(Color.WHITE);
+        chip.setCheckedBackgroundColor(Color.BLUE);
+        int textColor = chip.getTextColor();
+
+        chip.setChecked(true);
+
+        assertEquals(Color.WHITE, chip.getTextPaint().getColor());
+        assertEquals(textColor, chip.getTextColor());
+
+        chip.setChecked(false);
+
+        assertEquals(textColor, chip.getTextPaint().getColor());
+    }
+
+    public void testCheckedSpannedText_drawsCheckedTextColor() throws Exception {
+        SpannableStringBuilder text = new SpannableStringBuilder("Bold chip");
+        text.setSpan(new StyleSpan(Typeface.BOLD), 0, 4, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+        TextChip chip = new TextChip(getContext(), "Chip");
+        chip.setText(text);
+        chip.setCheckedTextColor(Color.WHITE);
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        chip.measure(spec, spec);
+        int textColor = chip.getTextColor();
+
+        chip.setChecked(true);
+
+        assertSame(chip.getTextPaint(), chip.getSpannedLayout().getPaint());
+        assertEquals(Color.WHITE, chip.getSpannedLayout().getPaint().getColor());
+
+        chip.setChecked(false);
+
+        assertSame(chip.getTextPaint(), chip.getSpannedLayout().getPaint());
+        assertEquals(textColor, chip.getSpannedLayout().getPaint().getColor());
+    }
+
+    public void testChecked_addsDrawableState() throws Exception {
+        TextChip chip = new TextChip(getContext(), "Chip");
+
+        chip.setChecked(true);
+
+        boolean found = false;
+        for (int state : chip.getDrawableState()) {
+            found |= state == android.R.attr.state_checked;
+        }
+        assertTrue(found);
+    }
+
+    public void testCheckedChips_shareCheckedPaints() throws Exception {
+        TextChip first = new TextChip(getContext(), "First");
+        TextChip second = new TextChip(getContext(), "Second");
+
+        first.setChecked(true);
+        second.setChecked(true);
+
+        assertSame(first.getTextPaint(), second.getTextPaint());
+    }
+
+    public void testCheckableChip_togglesOnClick() throws Exception {
+        TextChip chip = new TextChip(getContext(), "Chip");
+        chip.setCheckable(true);
+
+        chip.performClick();
+        assertTrue(chip.isChecked());
+
+        chip.performClick();
+        assertFalse(chip.isChecked());
+    }
+
+    public void testNotCheckable_clearsClickable() throws Exception {
+        TextChip chip = new TextChip(getContext(), "Chip");
+        chip.setCheckable(true);
+
+        chip.setCheckable(false);
+        assertFalse(chip.isClickable());
+
+        // A click listener still needs the chip clickable
+        chip.setCheckable(true);
+        chip.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+            }
+        });
+        chip.setCheckable(false);
+        assertTrue(chip.isClickable());
+    }
+
+    public void testCheckableStyle_appliesToChip() throws Exception {
+        ChipStyle style = new ChipStyle.Builder(getContext())
+                .setCheckable(true)
+                .setCheckedBackgroundColor(Color.RED)
+                .build();
+
+        TextChip chip = new TextChip(getContext(), "Chip", style);
+
+        assertTrue(chip.isCheckable());
+        assertEquals(Color.RED, chip.getCheckedBackgroundColor());
+    }
+}
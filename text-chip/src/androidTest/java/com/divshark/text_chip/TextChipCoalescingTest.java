@@ -0,0 +1,182 @@
+package com.divshark.text_chip;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.test.AndroidTestCase;
+import android.view.Choreographer;
+import android.view.View;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies coalesced chips apply rapid updates once per frame
+ */
+public class TextChipCoalescingTest extends AndroidTestCase {
+
+    private static final int UPDATES = 1000;
+    private static final int UPDATES_PER_FRAME = 100;
+
+    // Text changes applied & how many of them requested a layout pass, from the metrics listener
+    private int mApplied;
+    private int mLayouts;
+
+    // Restored after each test
+    private boolean mMetricsEnabled;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Changes are observed through the metrics, which may be off in this build
+        mMetricsEnabled = ChipMetrics.isEnabled();
+        ChipMetrics.setEnabled(true);
+
+        ChipMetrics.setListener(new ChipMetrics.Listener() {
+            @Override
+            public void onStage(int stage, long durationNanos) {
+            }
+
+            @Override
+            public void onPropertyChanged(String property, boolean layoutRequested) {
+                if ("text".equals(property)) {
+                    mApplied++;
+                    if (layoutRequested) {
+                        mLayouts++;
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ChipMetrics.setEnabled(mMetricsEnabled);
+        ChipMetrics.setListener(null);
+        super.tearDown();
+    }
+
+    public void testRapidUpdates_layoutOncePerFrame() throws Exception {
+        // Changes are counted through the metrics listener
+        final CountDownLatch done = new CountDownLatch(1);
+        final StringBuilder failure = new StringBuilder();
+
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final TextChip chip = new TextChip(getContext(), "");
+                chip.setCoalescingEnabled(true);
+                mApplied = 0;
+                mLayouts = 0;
+
+                final StringBuilder text = new StringBuilder();
+                Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+                    private int mSent;
+                    private int mAppliedBefore;
+
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        // The chip's callback was posted first, so last frame's updates are applied by now
+                        if (mApplied - mAppliedBefore > 1) {
+                            failure.append("applied ").append(mApplied - mAppliedBefore).append(" times in one frame; ");
+                        }
+
+                        if (mSent == UPDATES) {
+                            done.countDown();
+                            return;
+                        }
+
+                        mAppliedBefore = mApplied;
+                        for (int i = 0; i < UPDATES_PER_FRAME; i++) {
+                            text.append('a');
+                            chip.setText(text);
+                            mSent++;
+                        }
+
+                        if (mApplied != mAppliedBefore) {
+                            failure.append("updates applied before the frame; ");
+                        }
+                        mAppliedBefore = mApplied;
+
+                        Choreographer.getInstance().postFrameCallback(this);
+                    }
+                });
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals("", failure.toString());
+        assertEquals(UPDATES / UPDATES_PER_FRAME, mApplied);
+        assertEquals(UPDATES / UPDATES_PER_FRAME, mLayouts);
+    }
+
+    public void testMeasureBeforeFrame_appliesPendingUpdates() throws Exception {
+        final TextChip reference = new TextChip(getContext(), "A much longer chip label");
+        final int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        reference.measure(spec, spec);
+
+        final TextChip[] chip = new TextChip[1];
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                chip[0] = new TextChip(getContext(), "Chip");
+                chip[0].setCoalescingEnabled(true);
+                chip[0].setText("A much");
+                chip[0].setText("A much longer");
+                chip[0].setText("A much longer chip label");
+
+                // Not applied yet, but a measure pass must see the latest text
+                chip[0].measure(spec, spec);
+            }
+        });
+
+        assertEquals(reference.getMeasuredWidth(), chip[0].getMeasuredWidth());
+        assertEquals("A MUCH LONGER CHIP LABEL", chip[0].getText());
+    }
+
+    public void testDisablingCoalescing_appliesPendingUpdates() throws Exception {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                TextChip chip = new TextChip(getContext(), "Chip");
+                chip.setCoalescingEnabled(true);
+                mApplied = 0;
+
+                chip.setText("First");
+                chip.setText("Second");
+                assertEquals(0, mApplied);
+
+                chip.setCoalescingEnabled(false);
+                assertEquals(1, mApplied);
+
+                chip.setText("Third");
+                assertEquals(2, mApplied);
+            }
+        });
+    }
+
+    private static void runOnMainSync(final Runnable runnable) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Throwable[] error = new Throwable[1];
+
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runnable.run();
+                } catch (Throwable t) {
+                    error[0] = t;
+                } finally {
+                    latch.countDown();
+                }
+            }
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        if (error[0] instanceof Error) {
+            throw (Error) error[0];
+        } else if (error[0] != null) {
+            throw new Exception(error[0]);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.divshark.text_chip;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import java.util.Arrays;
+
+/**
+ * Measures per chip inflation cost with cold and warm style caches. Chips are inflated from
+ * a layout so attribute parsing through obtainStyledAttributes is part of the cost.
+ */
+public class TextChipConstructionBenchmark extends AndroidTestCase {
+
+    private static final String TAG = TextChipConstructionBenchmark.class.getSimpleName();
+
+    private static final int INFLATIONS = 50;
+
+    public void testInflationCost() throws Exception {
+        LayoutInflater inflater = LayoutInflater.from(getContext());
+        int layout = com.divshark.text_chip.test.R.layout.benchmark_chip_group;
+
+        // Warm up class loading & the measurement cache
+        ViewGroup group = null;
+        for (int i = 0; i < 5; i++) {
+            group = (ViewGroup) inflater.inflate(layout, null);
+        }
+        int chips = group.getChildCount();
+        assertTrue(chips > 0);
+
+        // Before: every inflation resolves its defaults & styles again
+        long start = System.nanoTime();
+        for (int i = 0; i < INFLATIONS; i++) {
+            ChipStyleDefaults.clear();
+            ChipStyle.clear();
+            inflater.inflate(layout, null);
+        }
+        long coldNanos = (System.nanoTime() - start) / (INFLATIONS * chips);
+
+        // After: resources are resolved once and shared
+        start = System.nanoTime();
+        for (int i = 0; i < INFLATIONS; i++) {
+            inflater.inflate(layout, null);
+        }
+        long warmNanos = (System.nanoTime() - start) / (INFLATIONS * chips);
+
+        Log.i(TAG, String.format("Per chip inflation of %d chips: uncached %.1f us, cached %.1f us",
+                chips, coldNanos / 1e3, warmNanos / 1e3));
+    }
+
+    public void testChipsGetTheirOwnForegroundDrawable() throws Exception {
+        TextChip first = new TextChip(getContext(), "First");
+        TextChip second = new TextChip(getContext(), "Second");
+
+        assertNotSame(first.getForegroundDrawable(), second.getForegroundDrawable());
+
+        first.getForegroundDrawable().setState(new int[] {android.R.attr.state_pressed});
+        assertFalse(Arrays.equals(first.getForegroundDrawable().getState(),
+                second.getForegroundDrawable().getState()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+import android.test.AndroidTestCase;
+import android.util.DisplayMetrics;
+import android.view.View;
+
+/**
+ * Verifies chips convert dimensions with the DimensionResolver snapshot instead of reading
+ * the display metrics on construction, bounds computation & measure
+ */
+public class TextChipDisplayMetricsTest extends AndroidTestCase {
+
+    private CountingResources mResources;
+    private Context mContext;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mResources = new CountingResources(getContext().getResources());
+        mContext = new ContextWrapper(getContext()) {
+            @Override
+            public Resources getResources() {
+                return mResources;
+            }
+        };
+
+        // Take the density snapshot of the new Resources, defaults are resolved again with them
+        DimensionResolver.get(mContext).dpToPx(1f);
+        ChipStyleDefaults.clear();
+        ChipStyle.clear();
+        mResources.libraryCalls = 0;
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ChipStyleDefaults.clear();
+        ChipStyle.clear();
+        super.tearDown();
+    }
+
+    public void testChip_doesNotReadDisplayMetrics() throws Exception {
+        TextChip chip = new TextChip(mContext, "Chip");
+
+        chip.setText("A much longer chip");
+        chip.setTextSize(chip.getTextSize() * 2f);
+
+        int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        chip.measure(unspecified, unspecified);
+        chip.measure(View.MeasureSpec.makeMeasureSpec(chip.getMeasuredWidth() / 2, View.MeasureSpec.AT_MOST),
+                unspecified);
+
+        assertEquals(0, mResources.libraryCalls);
+    }
+
+    /**
+     * Counts getDisplayMetrics calls made by the library, framework code such as
+     * ViewConfiguration reads them on every View construction
+     */
+    private static final class CountingResources extends Resources {
+
+        int libraryCalls;
+
+        @SuppressWarnings("deprecation")
+        CountingResources(Resources base) {
+            super(base.getAssets(), base.getDisplayMetrics(), base.getConfiguration());
+        }
+
+        @Override
+        public DisplayMetrics getDisplayMetrics() {
+            StackTraceElement[] stack = new Throwable().getStackTrace();
+            if (stack.length > 1) {
+                String caller = stack[1].getClassName();
+                if (caller.startsWith("com.divshark.text_chip.")
+                        && !caller.startsWith(TextChipDisplayMetricsTest.class.getName())) {
+                    libraryCalls++;
+                }
+            }
+            return super.getDisplayMetrics();
+        }
+    }
+}
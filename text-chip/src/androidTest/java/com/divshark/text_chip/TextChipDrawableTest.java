@@ -0,0 +1,103 @@
+package com.divshark.text_chip;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.test.AndroidTestCase;
+
+/**
+ * Verifies the drawable & span chips match the TextChip View
+ */
+public class TextChipDrawableTest extends AndroidTestCase {
+
+    public void testIntrinsicSize_matchesTextChip() throws Exception {
+        ChipLayout layout = new TextChip(getContext(), "Drawable").getChipLayout();
+
+        TextChipDrawable drawable = new TextChipDrawable(getContext(), "Drawable");
+
+        assertEquals(layout.getRectWidth(), drawable.getIntrinsicWidth());
+        assertEquals(layout.getRectHeight(), drawable.getIntrinsicHeight());
+        assertEquals(layout.getDisplayText(), drawable.getDisplayText());
+        assertEquals(layout.getCornerRadius(), drawable.getCornerRadius(), 0f);
+    }
+
+    public void testMaxChars_ellipsizesText() throws Exception {
+        ChipStyle style = new ChipStyle.Builder(getContext()).setMaxChars(3).build();
+
+        TextChipDrawable drawable = new TextChipDrawable(getContext(), "Drawable", style);
+
+        assertEquals("DRA" + TextMeasureCache.ELLIPSIS, drawable.getDisplayText());
+    }
+
+    public void testForeground_invalidatesTheHost() throws Exception {
+        final int[] invalidations = new int[1];
+        TextChipDrawable drawable = new TextChipDrawable(getContext(), "Pressed");
+        drawable.setCallback(new Drawable.Callback() {
+            @Override
+            public void invalidateDrawable(Drawable who) {
+                invalidations[0]++;
+            }
+
+            @Override
+            public void scheduleDrawable(Drawable who, Runnable what, long when) {
+            }
+
+            @Override
+            public void unscheduleDrawable(Drawable who, Runnable what) {
+            }
+        });
+
+        drawable.setState(new int[] {android.R.attr.state_pressed});
+        Drawable foreground = drawable.getForegroundDrawable();
+        assertSame(drawable, foreground.getCallback());
+
+        invalidations[0] = 0;
+        foreground.invalidateSelf();
+        assertEquals(1, invalidations[0]);
+    }
+
+    public void testNullLocale_isRejected() throws Exception {
+        TextChip chip = new TextChip(getContext(), "Chip");
+        try {
+            chip.setTextLocale(null);
+            fail("A null locale should be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        TextChipDrawable drawable = new TextChipDrawable(getContext(), "Chip");
+        try {
+            drawable.setTextLocale(null);
+            fail("A null locale should be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals("CHIP", drawable.getDisplayText());
+    }
+
+    public void testAlpha_leavesSharedPaintsAlone() throws Exception {
+        ChipStyle style = ChipStyle.getDefault(getContext());
+        int alpha = style.textPaint.getAlpha();
+
+        TextChipDrawable drawable = new TextChipDrawable(getContext(), "Faded");
+        drawable.setAlpha(128);
+        draw(drawable);
+
+        assertEquals(alpha, style.textPaint.getAlpha());
+    }
+
+    public void testChipSpan_sizedByDrawable() throws Exception {
+        ChipSpan span = new ChipSpan(getContext(), "Span");
+        Paint.FontMetricsInt fm = new Paint().getFontMetricsInt();
+
+        int width = span.getSize(new Paint(), "Span", 0, 4, fm);
+
+        assertEquals(span.getDrawable().getIntrinsicWidth(), width);
+        assertTrue(fm.descent - fm.ascent >= span.getDrawable().getIntrinsicHeight());
+    }
+
+    private static void draw(Drawable drawable) {
+        drawable.setBounds(0, 0, drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight());
+        drawable.draw(new Canvas(Bitmap.createBitmap(drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight(),
+                Bitmap.Config.ARGB_8888)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.divshark.text_chip;
+
+import android.test.AndroidTestCase;
+import android.view.View;
+
+/**
+ * Verifies the chip ellipsizes its text to the max width, max chars & the parent's constraint
+ */
+public class TextChipEllipsizeTest extends AndroidTestCase {
+
+    private static final String LABEL = "A much longer chip label";
+
+    private TextChip mChip;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mChip = new TextChip(getContext(), LABEL);
+    }
+
+    public void testNoLimits_drawsFullText() throws Exception {
+        measure(View.MeasureSpec.UNSPECIFIED, 0);
+        assertEquals(mChip.getText(), displayText());
+    }
+
+    public void testMaxChars_ellipsizesText() throws Exception {
+        mChip.setMaxChars(6);
+        assertEquals("A MUCH" + TextMeasureCache.ELLIPSIS, displayText());
+    }
+
+    public void testMaxWidth_limitsMeasuredWidth() throws Exception {
+        measure(View.MeasureSpec.UNSPECIFIED, 0);
+        int fullWidth = mChip.getMeasuredWidth();
+
+        mChip.setMaxWidth(fullWidth / 2);
+        measure(View.MeasureSpec.UNSPECIFIED, 0);
+
+        assertTrue(mChip.getMeasuredWidth() <= fullWidth / 2);
+        assertTrue(displayText().endsWith(TextMeasureCache.ELLIPSIS));
+    }
+
+    public void testAtMostConstraint_ellipsizesAndRestores() throws Exception {
+        measure(View.MeasureSpec.UNSPECIFIED, 0);
+        int fullWidth = mChip.getMeasuredWidth();
+
+        measure(View.MeasureSpec.AT_MOST, fullWidth / 2);
+        assertTrue(mChip.getMeasuredWidth() <= fullWidth / 2);
+        assertTrue(displayText().endsWith(TextMeasureCache.ELLIPSIS));
+
+        // Given enough room again the full text comes back
+        measure(View.MeasureSpec.AT_MOST, fullWidth * 2);
+        assertEquals(fullWidth, mChip.getMeasuredWidth());
+        assertEquals(mChip.getText(), displayText());
+    }
+
+    public void testAtMostConstraint_computesBoundsOnce() throws Exception {
+        measure(View.MeasureSpec.UNSPECIFIED, 0);
+        int fullWidth = mChip.getMeasuredWidth();
+
+        final int[] computations = new int[1];
+        boolean metricsEnabled = ChipMetrics.isEnabled();
+        ChipMetrics.setEnabled(true);
+        ChipMetrics.setListener(new ChipMetrics.Listener() {
+            @Override
+            public void onStage(int stage, long durationNanos) {
+                if (stage == ChipMetrics.STAGE_COMPUTE_BOUNDS) {
+                    computations[0]++;
+                }
+            }
+
+            @Override
+            public void onPropertyChanged(String property, boolean layoutRequested) {
+            }
+        });
+        try {
+            measure(View.MeasureSpec.AT_MOST, fullWidth / 2);
+            assertEquals(1, computations[0]);
+
+            // Same constraint, the bounds are still valid
+            measure(View.MeasureSpec.AT_MOST, fullWidth / 2);
+            assertEquals(1, computations[0]);
+        } finally {
+            ChipMetrics.setListener(null);
+            ChipMetrics.setEnabled(metricsEnabled);
+        }
+    }
+
+    private void measure(int widthMode, int widthSize) {
+        mChip.forceLayout();
+        mChip.measure(View.MeasureSpec.makeMeasureSpec(widthSize, widthMode),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+    }
+
+    private String displayText() {
+        return mChip.getChipLayout().getDisplayText();
+    }
+}
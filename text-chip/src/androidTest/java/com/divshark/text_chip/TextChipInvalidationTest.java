@@ -0,0 +1,125 @@
+package com.divshark.text_chip;
+
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.test.AndroidTestCase;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.TextPaint;
+import android.text.style.RelativeSizeSpan;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the regions a chip invalidates for each kind of change
+ */
+public class TextChipInvalidationTest extends AndroidTestCase {
+
+    private final List<Rect> mInvalidated = new ArrayList<>();
+
+    private TextChip mChip;
+
+    // Restored after each test
+    private boolean mMetricsEnabled;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Changes are observed through the metrics, which may be off in this build
+        mMetricsEnabled = ChipMetrics.isEnabled();
+        ChipMetrics.setEnabled(true);
+
+        mChip = new TextChip(getContext(), "Chip");
+        mChip.setClickable(true);
+        layout(mChip);
+
+        ChipMetrics.setInvalidationListener(new ChipMetrics.InvalidationListener() {
+            @Override
+            public void onInvalidate(View view, Rect dirty) {
+                mInvalidated.add(new Rect(dirty));
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ChipMetrics.setEnabled(mMetricsEnabled);
+        ChipMetrics.setInvalidationListener(null);
+        super.tearDown();
+    }
+
+    public void testTextColor_invalidatesTextOnly() throws Exception {
+        mChip.setTextColor(Color.RED);
+
+        Rect dirty = single();
+        assertTrue(dirty.width() < mChip.getWidth());
+        assertTrue(dirty.height() < mChip.getHeight());
+        assertTrue(fullChip().contains(dirty));
+    }
+
+    public void testTextColor_spannedText_coversSizedSpans() throws Exception {
+        SpannableString text = new SpannableString("Big chip");
+        text.setSpan(new RelativeSizeSpan(3f), 0, 3, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        mChip.setText(text);
+        layout(mChip);
+        mInvalidated.clear();
+
+        mChip.setTextColor(Color.RED);
+
+        TextPaint paint = new TextPaint();
+        paint.setTextSize(mChip.getTextSize());
+        assertTrue(single().height() > 2 * (paint.descent() - paint.ascent()));
+    }
+
+    public void testBackgroundColor_invalidatesBackground() throws Exception {
+        mChip.setBackgroundColor(Color.BLUE);
+
+        Rect dirty = single();
+        assertTrue(dirty.contains(mChip.getForegroundDrawable().getBounds()));
+        assertTrue(fullChip().contains(dirty));
+    }
+
+    public void testPressed_invalidatesForeground() throws Exception {
+        mChip.setPressed(true);
+
+        assertFalse(mInvalidated.isEmpty());
+        for (Rect dirty : mInvalidated) {
+            assertEquals(mChip.getForegroundDrawable().getDirtyBounds(), dirty);
+        }
+    }
+
+    public void testText_invalidatesChip() throws Exception {
+        mChip.setText("A much longer chip");
+
+        assertEquals(fullChip(), single());
+    }
+
+    public void testForegroundBounds_followComputeBounds() throws Exception {
+        mChip.setText("A much longer chip");
+        layout(mChip);
+
+        ChipLayout layout = mChip.getChipLayout();
+        Rect bounds = mChip.getForegroundDrawable().getBounds();
+
+        assertEquals(layout.getRectWidth(), bounds.width());
+        assertEquals(layout.getRectHeight(), bounds.height());
+    }
+
+    private Rect single() {
+        assertEquals(1, mInvalidated.size());
+        return mInvalidated.get(0);
+    }
+
+    private Rect fullChip() {
+        return new Rect(0, 0, mChip.getWidth(), mChip.getHeight());
+    }
+
+    private static void layout(View view) {
+        int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        view.measure(unspecified, unspecified);
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+}
@@ -0,0 +1,92 @@
+package com.divshark.text_chip;
+
+import android.graphics.Color;
+import android.test.AndroidTestCase;
+import android.view.View;
+
+/**
+ * Verifies which TextChip setters request a new layout pass
+ */
+public class TextChipLayoutRequestTest extends AndroidTestCase {
+
+    private TextChip mChip;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mChip = new TextChip(getContext(), "CHIP");
+        mChip.setUpperCase(true);
+        measureAndLayout();
+    }
+
+    public void testSetBackgroundColor_doesNotRequestLayout() throws Exception {
+        mChip.setBackgroundColor(Color.RED);
+        assertFalse(mChip.isLayoutRequested());
+    }
+
+    public void testSetTextColor_doesNotRequestLayout() throws Exception {
+        mChip.setTextColor(Color.RED);
+        assertFalse(mChip.isLayoutRequested());
+    }
+
+    public void testSetText_sameSize_doesNotRequestLayout() throws Exception {
+        mChip.setText("CHIP");
+        assertFalse(mChip.isLayoutRequested());
+    }
+
+    public void testSetText_newSize_requestsLayout() throws Exception {
+        mChip.setText("A much longer chip label");
+        assertTrue(mChip.isLayoutRequested());
+    }
+
+    public void testSetTextSize_requestsLayoutOnlyWhenSizeChanges() throws Exception {
+        mChip.setTextSize(mChip.getTextSize());
+        assertFalse(mChip.isLayoutRequested());
+
+        mChip.setTextSize(mChip.getTextSize() * 2f);
+        assertTrue(mChip.isLayoutRequested());
+    }
+
+    public void testSetUpperCase_requestsLayoutOnlyWhenSizeChanges() throws Exception {
+        // "CHIP" is already upper case so toggling does not change the text
+        mChip.setUpperCase(false);
+        assertFalse(mChip.isLayoutRequested());
+
+        mChip.setText("chip");
+        measureAndLayout();
+
+        mChip.setUpperCase(true);
+        assertTrue(mChip.isLayoutRequested());
+    }
+
+    public void testSetStrokeWidth_sameValue_doesNotRequestLayout() throws Exception {
+        mChip.setStrokeWidth(mChip.getStrokeWidth());
+        assertFalse(mChip.isLayoutRequested());
+    }
+
+    public void testEditor_colorsOnly_doesNotRequestLayout() throws Exception {
+        mChip.edit()
+                .setTextColor(Color.WHITE)
+                .setBackgroundColor(Color.BLUE)
+                .apply();
+        assertFalse(mChip.isLayoutRequested());
+    }
+
+    public void testEditor_textChange_requestsLayout() throws Exception {
+        mChip.edit()
+                .setText("A much longer chip label")
+                .setTextSize(mChip.getTextSize() * 2f)
+                .setTextColor(Color.WHITE)
+                .apply();
+        assertTrue(mChip.isLayoutRequested());
+        assertEquals("A MUCH LONGER CHIP LABEL", mChip.getText());
+    }
+
+    private void measureAndLayout() {
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mChip.measure(spec, spec);
+        mChip.layout(0, 0, mChip.getMeasuredWidth(), mChip.getMeasuredHeight());
+        assertFalse(mChip.isLayoutRequested());
+    }
+}
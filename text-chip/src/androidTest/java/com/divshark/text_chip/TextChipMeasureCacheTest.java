@@ -0,0 +1,86 @@
+package com.divshark.text_chip;
+
+import android.graphics.Typeface;
+import android.test.AndroidTestCase;
+
+/**
+ * Verifies that binding labels through TextChip hits the TextMeasureCache for text it has
+ * measured before, and misses once the size, stroke, typeface or case changes
+ */
+public class TextChipMeasureCacheTest extends AndroidTestCase {
+
+    private TextMeasureCache mCache;
+    private TextChip mFirst;
+    private TextChip mSecond;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        mFirst = new TextChip(getContext(), "First");
+        mSecond = new TextChip(getContext(), "Second");
+
+        // Counts start after the chips measured their initial labels
+        mCache = TextMeasureCache.getInstance();
+        mCache.clear();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mCache.clear();
+        super.tearDown();
+    }
+
+    public void testRepeatedBinds_hitTheCache() throws Exception {
+        mFirst.setText("Alpha");
+        mFirst.setText("Beta");
+        assertCounts(0, 2);
+
+        // Same labels bound again, on the same & on another chip
+        mFirst.setText("Alpha");
+        mSecond.setText("Beta");
+        mSecond.setText("Alpha");
+        assertCounts(3, 2);
+    }
+
+    public void testTextSizeChange_misses() throws Exception {
+        mFirst.setText("Alpha");
+        mFirst.setTextSize(mFirst.getTextSize() * 2f);
+        assertCounts(0, 2);
+
+        // The other chip still measures at the old size
+        mSecond.setText("Alpha");
+        assertCounts(1, 2);
+    }
+
+    public void testStrokeWidthChange_misses() throws Exception {
+        mFirst.setText("Alpha");
+        mFirst.setStrokeWidth(mFirst.getStrokeWidth() + 2f);
+        assertCounts(0, 2);
+    }
+
+    public void testTypefaceChange_misses() throws Exception {
+        mFirst.setText("Alpha");
+        mFirst.setTypeface(Typeface.MONOSPACE);
+        assertCounts(0, 2);
+
+        mSecond.setTypeface(Typeface.MONOSPACE);
+        mSecond.setText("Alpha");
+        assertEquals(1, mCache.getHitCount());
+    }
+
+    public void testCaseChange_misses() throws Exception {
+        mFirst.setUpperCase(true);
+        mFirst.setText("Alpha");
+        mFirst.setUpperCase(false);
+        assertCounts(0, 2);
+
+        mFirst.setUpperCase(true);
+        assertCounts(1, 2);
+    }
+
+    private void assertCounts(long hits, long misses) {
+        assertEquals(hits, mCache.getHitCount());
+        assertEquals(misses, mCache.getMissCount());
+    }
+}
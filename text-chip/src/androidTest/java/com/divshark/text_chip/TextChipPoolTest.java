@@ -0,0 +1,106 @@
+package com.divshark.text_chip;
+
+import android.graphics.Color;
+import android.test.AndroidTestCase;
+import android.widget.LinearLayout;
+
+/**
+ * Verifies released chips are reset and handed out again
+ */
+public class TextChipPoolTest extends AndroidTestCase {
+
+    private TextChipPool mPool;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mPool = new TextChipPool(getContext(), 2);
+    }
+
+    public void testReleasedChip_isReused() throws Exception {
+        TextChip chip = mPool.obtain("First");
+        assertTrue(mPool.release(chip));
+
+        TextChip reused = mPool.obtain("Second");
+
+        assertSame(chip, reused);
+        assertEquals("SECOND", reused.getText());
+        assertEquals(1, mPool.getCreatedCount());
+        assertEquals(1, mPool.getReusedCount());
+    }
+
+    public void testRelease_clearsCheckedDrawableState() throws Exception {
+        TextChip chip = mPool.obtain("Checked");
+        chip.setCheckable(true);
+        chip.setChecked(true);
+        mPool.release(chip);
+
+        TextChip reused = mPool.obtain("Unchecked");
+
+        assertFalse(reused.isChecked());
+        for (int state : reused.getDrawableState()) {
+            assertTrue(state != android.R.attr.state_checked);
+        }
+        for (int state : reused.getForegroundDrawable().getState()) {
+            assertTrue(state != android.R.attr.state_checked);
+        }
+    }
+
+    public void testRelease_keepsClickableInStepWithCheckable() throws Exception {
+        TextChip chip = mPool.obtain("Checkable");
+        chip.setCheckable(true);
+        mPool.release(chip);
+
+        TextChip reused = mPool.obtain("Chip");
+
+        assertEquals(reused.isCheckable(), reused.isClickable());
+    }
+
+    public void testRelease_resetsToDefaults() throws Exception {
+        TextChip fresh = new TextChip(getContext(), "Chip");
+
+        TextChip chip = mPool.obtain("Chip");
+        chip.edit()
+                .setTextColor(Color.RED)
+                .setBackgroundColor(Color.BLUE)
+                .setTextSize(fresh.getTextSize() * 2f)
+                .setUpperCase(false)
+                .apply();
+        chip.setMaxChars(2);
+        chip.setSnapshotEnabled(true);
+        chip.setCoalescingEnabled(true);
+        chip.setAlpha(0.5f);
+        mPool.release(chip);
+
+        TextChip reused = mPool.obtain("Chip");
+
+        assertEquals(fresh.getTextColor(), reused.getTextColor());
+        assertEquals(fresh.getBackgroundColor(), reused.getBackgroundColor());
+        assertEquals(fresh.getTextSize(), reused.getTextSize(), 0f);
+        assertEquals(fresh.getMaxChars(), reused.getMaxChars());
+        assertTrue(reused.isUpperCase());
+        assertFalse(reused.isSnapshotEnabled());
+        assertFalse(reused.isCoalescingEnabled());
+        assertEquals(1f, reused.getAlpha(), 0f);
+        assertEquals("CHIP", reused.getText());
+    }
+
+    public void testFullPool_dropsChips() throws Exception {
+        assertTrue(mPool.release(mPool.obtain("A")));
+        assertTrue(mPool.release(new TextChip(getContext(), "B")));
+        assertFalse(mPool.release(new TextChip(getContext(), "C")));
+        assertEquals(2, mPool.size());
+    }
+
+    public void testReleaseAttachedChip_throws() throws Exception {
+        TextChip chip = mPool.obtain("Attached");
+        new LinearLayout(getContext()).addView(chip);
+
+        try {
+            mPool.release(chip);
+            fail("Expected an IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // Chip is still attached to its parent
+        }
+    }
+}
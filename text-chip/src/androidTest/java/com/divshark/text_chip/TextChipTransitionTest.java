@@ -0,0 +1,278 @@
+package com.divshark.text_chip;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.test.AndroidTestCase;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
+import android.view.View;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the measurements & layout passes of each animated transition, frames only redraw
+ */
+public class TextChipTransitionTest extends AndroidTestCase {
+
+    private static final float[] FRAMES = new float[] {0.1f, 0.25f, 0.5f, 0.75f, 0.9f};
+
+    private HandlerThread mThread;
+    private Handler mHandler;
+
+    private int mBoundsComputations;
+    private int mMeasures;
+    private int mLayoutRequests;
+
+    private TextChip mChip;
+    private Canvas mCanvas;
+
+    // Restored after each test
+    private boolean mMetricsEnabled;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Changes are observed through the metrics, which may be off in this build
+        mMetricsEnabled = ChipMetrics.isEnabled();
+        ChipMetrics.setEnabled(true);
+
+        // The transition animator needs a Looper thread
+        mThread = new HandlerThread("TextChipTransitionTest");
+        mThread.start();
+        mHandler = new Handler(mThread.getLooper());
+
+        ChipMetrics.setListener(new ChipMetrics.Listener() {
+            @Override
+            public void onStage(int stage, long durationNanos) {
+                if (stage == ChipMetrics.STAGE_COMPUTE_BOUNDS) {
+                    mBoundsComputations++;
+                } else if (stage == ChipMetrics.STAGE_MEASURE) {
+                    mMeasures++;
+                }
+            }
+
+            @Override
+            public void onPropertyChanged(String property, boolean layoutRequested) {
+                if (layoutRequested) {
+                    mLayoutRequests++;
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ChipMetrics.setEnabled(mMetricsEnabled);
+        ChipMetrics.setListener(null);
+        mThread.quit();
+        super.tearDown();
+    }
+
+    public void testAnimateTextSize_layoutOnceAtTheEnd() throws Throwable {
+        runOnLooper(new Runnable() {
+            @Override
+            public void run() {
+                prepareChip("Chip");
+                int width = mChip.getWidth();
+
+                mChip.animateTextSize(mChip.getTextSize() * 2f);
+                assertTrue(mChip.isTransitionRunning());
+                drawFrames();
+
+                // Measured once up front, frames neither measure nor lay out
+                assertEquals(1, mBoundsComputations);
+                assertEquals(0, mMeasures);
+                assertEquals(0, mLayoutRequests);
+                assertFalse(mChip.isLayoutRequested());
+                assertEquals(width, mChip.getWidth());
+
+                mChip.endTransition();
+                assertFalse(mChip.isTransitionRunning());
+                assertEquals(1, mLayoutRequests);
+                assertTrue(mChip.isLayoutRequested());
+
+                layout(mChip);
+                assertEquals(1, mBoundsComputations);
+                assertEquals(1, mMeasures);
+                assertTrue(mChip.getWidth() > width);
+            }
+        });
+    }
+
+    public void testAnimateText_crossfadeLaysOutOnce() throws Throwable {
+        runOnLooper(new Runnable() {
+            @Override
+            public void run() {
+                prepareChip("Chip");
+
+                mChip.animateText("A much longer chip label");
+                drawFrames();
+
+                assertEquals(1, mBoundsComputations);
+                assertEquals(0, mMeasures);
+                assertEquals(0, mLayoutRequests);
+
+                mChip.setTransitionFraction(1f);
+                assertFalse(mChip.isTransitionRunning());
+                assertEquals(1, mLayoutRequests);
+                assertEquals("A MUCH LONGER CHIP LABEL", mChip.getText());
+            }
+        });
+    }
+
+    public void testAnimateText_sameText_doesNotAnimate() throws Throwable {
+        runOnLooper(new Runnable() {
+            @Override
+            public void run() {
+                prepareChip("CHIP");
+
+                mChip.animateText("CHIP");
+
+                assertFalse(mChip.isTransitionRunning());
+                assertEquals(0, mBoundsComputations);
+                assertFalse(mChip.isLayoutRequested());
+            }
+        });
+    }
+
+    public void testAnimateColors_neverMeasureOrLayout() throws Throwable {
+        runOnLooper(new Runnable() {
+            @Override
+            public void run() {
+                prepareChip("Chip");
+
+                mChip.animateBackgroundColor(Color.BLUE);
+                mChip.animateTextColor(Color.WHITE);
+                drawFrames();
+                mChip.endTransition();
+
+                assertEquals(0, mBoundsComputations);
+                assertEquals(0, mMeasures);
+                assertEquals(0, mLayoutRequests);
+                assertFalse(mChip.isLayoutRequested());
+                assertEquals(Color.BLUE, mChip.getBackgroundColor());
+                assertEquals(Color.WHITE, mChip.getTextColor());
+            }
+        });
+    }
+
+    public void testAnimateTextColor_blendsSpannedText() throws Throwable {
+        runOnLooper(new Runnable() {
+            @Override
+            public void run() {
+                SpannableStringBuilder text = new SpannableStringBuilder("Bold chip");
+                text.setSpan(new StyleSpan(Typeface.BOLD), 0, 4, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+                prepareChip("Chip");
+                mChip.setText(text);
+                mChip.setBackgroundColor(Color.TRANSPARENT);
+                mChip.setTextColor(Color.BLACK);
+                layout(mChip);
+
+                mChip.animateTextColor(Color.WHITE);
+
+                // Halfway the text is gray, not already white
+                mChip.setTransitionFraction(0.5f);
+                int halfway = maxRed(mChip);
+                assertTrue(halfway > 0);
+                assertTrue(halfway < 200);
+
+                mChip.endTransition();
+                assertTrue(maxRed(mChip) > 200);
+            }
+        });
+    }
+
+    public void testChainedTransitions_layoutOnceAtTheEnd() throws Throwable {
+        runOnLooper(new Runnable() {
+            @Override
+            public void run() {
+                prepareChip("Chip");
+
+                mChip.animateText("Longer chip");
+                drawFrames();
+                mChip.animateTextSize(mChip.getTextSize() * 2f);
+                drawFrames();
+
+                // The first transition is cut short without a layout pass
+                assertEquals(2, mBoundsComputations);
+                assertEquals(0, mLayoutRequests);
+
+                mChip.endTransition();
+                assertEquals(1, mLayoutRequests);
+            }
+        });
+    }
+
+    private void prepareChip(String text) {
+        mChip = new TextChip(getContext(), text);
+        layout(mChip);
+
+        Bitmap bitmap = Bitmap.createBitmap(mChip.getWidth() * 4, mChip.getHeight() * 4, Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(bitmap);
+
+        mBoundsComputations = 0;
+        mMeasures = 0;
+        mLayoutRequests = 0;
+    }
+
+    private void drawFrames() {
+        for (float fraction : FRAMES) {
+            mChip.setTransitionFraction(fraction);
+            mChip.draw(mCanvas);
+        }
+    }
+
+    /**
+     * Brightest red channel of the chip drawn on a transparent bitmap
+     */
+    private static int maxRed(View view) {
+        Bitmap bitmap = Bitmap.createBitmap(view.getWidth(), view.getHeight(), Bitmap.Config.ARGB_8888);
+        view.draw(new Canvas(bitmap));
+
+        int max = 0;
+        for (int x = 0; x < bitmap.getWidth(); x++) {
+            for (int y = 0; y < bitmap.getHeight(); y++) {
+                max = Math.max(max, Color.red(bitmap.getPixel(x, y)));
+            }
+        }
+        bitmap.recycle();
+        return max;
+    }
+
+    private void runOnLooper(final Runnable test) throws Throwable {
+        final Throwable[] failure = new Throwable[1];
+        final CountDownLatch done = new CountDownLatch(1);
+
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    test.run();
+                } catch (Throwable t) {
+                    failure[0] = t;
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    private static void layout(View view) {
+        int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        view.measure(unspecified, unspecified);
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+}
@@ -0,0 +1,97 @@
+package com.divshark.text_chip;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Process wide, bounded LRU cache of case transformed chip labels. Labels seen before return
+ * the same String instance for either case, so toggling the case or re-binding a label
+ * neither allocates nor misses the {@link TextMeasureCache}.
+ */
+final class CaseTransformCache {
+
+    // Default number of labels kept around
+    static final int DEFAULT_CAPACITY = 256;
+
+    private static final CaseTransformCache INSTANCE = new CaseTransformCache(DEFAULT_CAPACITY);
+
+    private final LinkedHashMap<String, Entry> mEntries;
+    private final int mCapacity;
+
+    private long mHits;
+    private long mMisses;
+
+    CaseTransformCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.mCapacity = capacity;
+        this.mEntries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > mCapacity;
+            }
+        };
+    }
+
+    static CaseTransformCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the trimmed text, upper cased with the given locale when upperCase is set
+     */
+    synchronized String transform(String text, boolean upperCase, Locale locale) {
+        boolean miss = false;
+
+        Entry entry = mEntries.get(text);
+        if (entry == null || !entry.locale.equals(locale)) {
+            entry = new Entry(locale, text.trim());
+            mEntries.put(text, entry);
+            miss = true;
+        }
+
+        if (upperCase && entry.upperCase == null) {
+            // toUpperCase returns the same instance when there is nothing to change
+            entry.upperCase = entry.trimmed.toUpperCase(locale);
+            miss = true;
+        }
+
+        if (miss) {
+            mMisses++;
+        } else {
+            mHits++;
+        }
+        return upperCase ? entry.upperCase : entry.trimmed;
+    }
+
+    synchronized long getHitCount() {
+        return mHits;
+    }
+
+    synchronized long getMissCount() {
+        return mMisses;
+    }
+
+    synchronized int size() {
+        return mEntries.size();
+    }
+
+    synchronized void clear() {
+        mEntries.clear();
+        mHits = 0;
+        mMisses = 0;
+    }
+
+    private static final class Entry {
+        final Locale locale;
+        final String trimmed;
+        String upperCase;
+
+        Entry(Locale locale, String trimmed) {
+            this.locale = locale;
+            this.trimmed = trimmed;
+        }
+    }
+}
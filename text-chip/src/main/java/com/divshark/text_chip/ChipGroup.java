@@ -0,0 +1,253 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * ViewGroup which flows its TextChip children into wrapping rows.
+ * Each child is measured once per pass and positioned while measuring,
+ * so measure & layout stay linear in the number of chips.
+ */
+public class ChipGroup extends ViewGroup {
+
+    // TAG for Logging
+    private static final String TAG = ChipGroup.class.getSimpleName();
+
+    // Default values
+    private static final float DEFAULT_SPACING = 4f;
+
+    private int mItemSpacing;
+    private int mLineSpacing;
+    private int mMaxLines = Integer.MAX_VALUE;
+
+    // Child positions computed in onMeasure and applied in onLayout
+    private int[] mChildLefts = new int[0];
+    private int[] mChildTops = new int[0];
+
+    // Number of children which fit within the max lines
+    private int mVisibleChildCount;
+
+    public ChipGroup(Context context) {
+        super(context);
+
+        initDefaults(null);
+    }
+
+    public ChipGroup(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        initDefaults(attrs);
+    }
+
+    public ChipGroup(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+
+        initDefaults(attrs);
+    }
+
+    public int getItemSpacing() {
+        return mItemSpacing;
+    }
+
+    public void setItemSpacing(int itemSpacing) {
+        this.mItemSpacing = itemSpacing;
+        requestLayout();
+    }
+
+    public int getLineSpacing() {
+        return mLineSpacing;
+    }
+
+    public void setLineSpacing(int lineSpacing) {
+        this.mLineSpacing = lineSpacing;
+        requestLayout();
+    }
+
+    public int getMaxLines() {
+        return mMaxLines;
+    }
+
+    /**
+     * Limits the number of rows, at least one row is always shown
+     */
+    public void setMaxLines(int maxLines) {
+        this.mMaxLines = checkMaxLines(maxLines);
+        requestLayout();
+    }
+
+    private static int checkMaxLines(int maxLines) {
+        if (maxLines < 1) {
+            throw new IllegalArgumentException("Max lines must be at least 1, was " + maxLines);
+        }
+        return maxLines;
+    }
+
+    private void initDefaults(AttributeSet attrs) {
+
+        int defaultSpacing = (int) DimensionResolver.get(getContext()).dpToPx(DEFAULT_SPACING);
+
+        if (attrs != null) {
+
+            TypedArray typedArray = getContext().obtainStyledAttributes(attrs, R.styleable.ChipGroup);
+
+            mItemSpacing = typedArray.getDimensionPixelSize(R.styleable.ChipGroup_cg_itemSpacing, defaultSpacing);
+            mLineSpacing = typedArray.getDimensionPixelSize(R.styleable.ChipGroup_cg_lineSpacing, defaultSpacing);
+            mMaxLines = checkMaxLines(typedArray.getInt(R.styleable.ChipGroup_cg_maxLines, Integer.MAX_VALUE));
+
+            typedArray.recycle();
+        } else {
+            mItemSpacing = defaultSpacing;
+            mLineSpacing = defaultSpacing;
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+
+        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+        int heightSize = MeasureSpec.getSize(heightMeasureSpec);
+
+        int paddingLeft = getPaddingLeft();
+        int paddingRight = getPaddingRight();
+        int paddingTop = getPaddingTop();
+        int paddingBottom = getPaddingBottom();
+
+        // Rows only wrap when there is a width to wrap at
+        int maxRight = widthMode == MeasureSpec.UNSPECIFIED ? Integer.MAX_VALUE : widthSize - paddingRight;
+
+        int childCount = getChildCount();
+        ensureCapacity(childCount);
+
+        // Rows grow with their tallest chip, children are never constrained in height
+        int unspecified = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+
+        int x = paddingLeft;
+        int y = paddingTop;
+        int lineHeight = 0;
+        int lines = 1;
+        int contentRight = paddingLeft;
+
+        mVisibleChildCount = childCount;
+
+        for (int i = 0; i < childCount; i++) {
+            View child = getChildAt(i);
+            if (child.getVisibility() == GONE) {
+                continue;
+            }
+
+            MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
+            int horizontalMargins = lp.leftMargin + lp.rightMargin;
+
+            // TextChip measures from its already computed bounds, so this is cheap
+            child.measure(getChildMeasureSpec(widthMeasureSpec, paddingLeft + paddingRight + horizontalMargins, lp.width),
+                    getChildMeasureSpec(unspecified, lp.topMargin + lp.bottomMargin, lp.height));
+
+            // Sizes include the margins from here on
+            int childWidth = child.getMeasuredWidth() + horizontalMargins;
+            int childHeight = child.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
+
+            // Wrap to the next row when the chip does not fit
+            if (x > paddingLeft && x + childWidth > maxRight) {
+                if (lines == mMaxLines) {
+                    mVisibleChildCount = i;
+                    break;
+                }
+                lines++;
+                x = paddingLeft;
+                y += lineHeight + mLineSpacing;
+                lineHeight = 0;
+            }
+
+            mChildLefts[i] = x + lp.leftMargin;
+            mChildTops[i] = y + lp.topMargin;
+
+            x += childWidth;
+            contentRight = Math.max(contentRight, x);
+            x += mItemSpacing;
+            lineHeight = Math.max(lineHeight, childHeight);
+        }
+
+        int desiredWidth = contentRight + paddingRight;
+        int desiredHeight = y + lineHeight + paddingBottom;
+
+        int width;
+        int height;
+
+        //Measure Width
+        if (widthMode == MeasureSpec.EXACTLY) {
+            width = widthSize;
+        } else if (widthMode == MeasureSpec.AT_MOST) {
+            width = Math.min(desiredWidth, widthSize);
+        } else {
+            width = desiredWidth;
+        }
+
+        //Measure Height
+        if (heightMode == MeasureSpec.EXACTLY) {
+            height = heightSize;
+        } else if (heightMode == MeasureSpec.AT_MOST) {
+            height = Math.min(desiredHeight, heightSize);
+        } else {
+            height = desiredHeight;
+        }
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+
+        int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View child = getChildAt(i);
+            if (child.getVisibility() == GONE) {
+                continue;
+            }
+
+            // Chips beyond the max lines are laid out empty so they are not drawn
+            if (i >= mVisibleChildCount) {
+                child.layout(0, 0, 0, 0);
+                continue;
+            }
+
+            int left = mChildLefts[i];
+            int top = mChildTops[i];
+            child.layout(left, top, left + child.getMeasuredWidth(), top + child.getMeasuredHeight());
+        }
+    }
+
+    @Override
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof MarginLayoutParams;
+    }
+
+    @Override
+    protected ViewGroup.LayoutParams generateDefaultLayoutParams() {
+        return new MarginLayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    public ViewGroup.LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new MarginLayoutParams(getContext(), attrs);
+    }
+
+    @Override
+    protected ViewGroup.LayoutParams generateLayoutParams(ViewGroup.LayoutParams p) {
+        if (p instanceof MarginLayoutParams) {
+            return new MarginLayoutParams((MarginLayoutParams) p);
+        }
+        return new MarginLayoutParams(p);
+    }
+
+    private void ensureCapacity(int childCount) {
+        if (mChildLefts.length < childCount) {
+            int capacity = Math.max(childCount, mChildLefts.length * 2);
+            mChildLefts = new int[capacity];
+            mChildTops = new int[capacity];
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.divshark.text_chip;
+
+/**
+ * Immutable chip row shown by the {@link TextChipAdapter}, optionally with its own {@link ChipStyle}
+ */
+public final class ChipItem {
+
+    private final long mId;
+    private final String mText;
+    private final int mTextColor;
+    private final int mBackgroundColor;
+    private final ChipStyle mChipStyle;
+
+    public ChipItem(long id, String text, int textColor, int backgroundColor) {
+        this(id, text, textColor, backgroundColor, null);
+    }
+
+    /**
+     * @param chipStyle style applied before the item's colors, null for the default style
+     */
+    public ChipItem(long id, String text, int textColor, int backgroundColor, ChipStyle chipStyle) {
+        this.mId = id;
+        this.mText = text;
+        this.mTextColor = textColor;
+        this.mBackgroundColor = backgroundColor;
+        this.mChipStyle = chipStyle;
+    }
+
+    public long getId() {
+        return mId;
+    }
+
+    public String getText() {
+        return mText;
+    }
+
+    public int getTextColor() {
+        return mTextColor;
+    }
+
+    public int getBackgroundColor() {
+        return mBackgroundColor;
+    }
+
+    public ChipStyle getChipStyle() {
+        return mChipStyle;
+    }
+
+    /**
+     * Returns a copy of this item with new colors
+     */
+    public ChipItem withColors(int textColor, int backgroundColor) {
+        return new ChipItem(mId, mText, textColor, backgroundColor, mChipStyle);
+    }
+
+    /**
+     * Returns whether the items differ in their colors only, which does not need a new measurement.
+     * Styles are compiled once and shared, so they are compared by identity.
+     */
+    boolean hasSameText(ChipItem other) {
+        return mId == other.mId && mText.equals(other.mText) && mChipStyle == other.mChipStyle;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChipItem)) return false;
+
+        ChipItem other = (ChipItem) o;
+        return hasSameText(other)
+                && mTextColor == other.mTextColor
+                && mBackgroundColor == other.mBackgroundColor;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (mId ^ (mId >>> 32));
+        result = 31 * result + mText.hashCode();
+        result = 31 * result + mTextColor;
+        result = 31 * result + mBackgroundColor;
+        result = 31 * result + (mChipStyle != null ? System.identityHashCode(mChipStyle) : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ChipItem{" +
+                "id=" + mId +
+                ", text='" + mText + '\'' +
+                '}';
+    }
+}
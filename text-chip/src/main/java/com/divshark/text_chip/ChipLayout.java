@@ -0,0 +1,262 @@
+package com.divshark.text_chip;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Immutable chip geometry for a label which a TextChip can adopt without measuring again.
+ * Layouts for a batch of labels can be computed off the main thread with
+ * {@link #precompute(TextChip, List, Executor, Callback)}.
+ */
+public final class ChipLayout {
+
+    /**
+     * Receives the computed layouts on the main thread, in the order of the labels
+     */
+    public interface Callback {
+        void onLayoutsComputed(List<ChipLayout> layouts);
+    }
+
+    /**
+     * Handle for a running precomputation
+     */
+    public static final class Task {
+        private final AtomicBoolean mCancelled = new AtomicBoolean();
+
+        private Task() {
+        }
+
+        /**
+         * Stops the computation, the callback will not be invoked once this returns
+         */
+        public void cancel() {
+            mCancelled.set(true);
+        }
+
+        public boolean isCancelled() {
+            return mCancelled.get();
+        }
+    }
+
+    // Paint configuration the geometry was computed for
+    private final String mOriginalText;
+    private final String mText;
+    private final String mDisplayText;
+    private final float mTextSize;
+    private final float mStrokeWidth;
+    private final Typeface mTypeface;
+    private final boolean mIsUpperCase;
+    private final Locale mLocale;
+    private final float mTextMaxWidth;
+    private final int mMaxChars;
+    private final float mInternalPadding;
+    private final float mDefaultHeight;
+
+    // Geometry
+    private final float mTextWidth;
+    private final float mTextHeight;
+    private final float mCornerRadius;
+    private final int mRectWidth;
+    private final int mRectHeight;
+
+    ChipLayout(String originalText, String text, String displayText, float textSize, float strokeWidth, Typeface typeface,
+               boolean isUpperCase, Locale locale, float textMaxWidth, int maxChars, float internalPadding, float defaultHeight,
+               float textWidth, float textHeight, float cornerRadius, int rectWidth, int rectHeight) {
+        this.mOriginalText = originalText;
+        this.mText = text;
+        this.mDisplayText = displayText;
+        this.mTextSize = textSize;
+        this.mStrokeWidth = strokeWidth;
+        this.mTypeface = typeface;
+        this.mIsUpperCase = isUpperCase;
+        this.mLocale = locale;
+        this.mTextMaxWidth = textMaxWidth;
+        this.mMaxChars = maxChars;
+        this.mInternalPadding = internalPadding;
+        this.mDefaultHeight = defaultHeight;
+        this.mTextWidth = textWidth;
+        this.mTextHeight = textHeight;
+        this.mCornerRadius = cornerRadius;
+        this.mRectWidth = rectWidth;
+        this.mRectHeight = rectHeight;
+    }
+
+    /**
+     * Computes the layouts of the labels on the executor using the template chip's style.
+     * Must be called on the main thread, the callback is delivered there as well.
+     */
+    public static Task precompute(TextChip template, List<String> labels, Executor executor, final Callback callback) {
+
+        // Snapshot everything from the chip on the calling thread
+        final Paint paint = new Paint(template.getTextPaint());
+        final TextMeasureCache.Measurer measurer = new TextMeasureCache.PaintMeasurer(paint);
+        final boolean isUpperCase = template.isUpperCase();
+        final Locale locale = template.getTextLocale();
+        final float textMaxWidth = template.getTextMaxWidth();
+        final int maxChars = template.getMaxChars();
+        final float internalPadding = template.getInternalPadding();
+        final float defaultHeight = template.getDefaultHeight();
+        final List<String> snapshot = new ArrayList<>(labels);
+
+        final Task task = new Task();
+        final Handler handler = new Handler(Looper.getMainLooper());
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<ChipLayout> layouts = new ArrayList<>(snapshot.size());
+                for (String label : snapshot) {
+                    if (task.isCancelled()) {
+                        return;
+                    }
+                    layouts.add(compute(paint, measurer, label, isUpperCase, locale, textMaxWidth, maxChars,
+                            internalPadding, defaultHeight));
+                }
+
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!task.isCancelled()) {
+                            callback.onLayoutsComputed(Collections.unmodifiableList(layouts));
+                        }
+                    }
+                });
+            }
+        });
+
+        return task;
+    }
+
+    /**
+     * Computes a layout with the same arithmetic as TextChip.computeBounds(), the measurer
+     * wraps the paint and is shared by the whole batch
+     */
+    static ChipLayout compute(Paint paint, TextMeasureCache.Measurer measurer, String originalText, boolean isUpperCase,
+                              Locale locale, float textMaxWidth, int maxChars, float internalPadding, float defaultHeight) {
+
+        String text = TextChip.transformCase(originalText, isUpperCase, locale);
+
+        TextMeasureCache.Measurement measurement = TextMeasureCache.getInstance().obtain(text,
+                paint.getTextSize(), paint.getStrokeWidth(), paint.getTypeface(), isUpperCase,
+                textMaxWidth, maxChars, measurer);
+
+        float textHeight = measurement.height;
+        float textWidth = measurement.width;
+        float cornerRadius = TextChip.cornerRadius(textHeight);
+        int rectWidth = TextChip.rectWidth(textWidth, internalPadding);
+        int rectHeight = TextChip.rectHeight(textHeight, internalPadding, defaultHeight);
+
+        return new ChipLayout(originalText, text, measurement.text, paint.getTextSize(), paint.getStrokeWidth(),
+                paint.getTypeface(), isUpperCase, locale, textMaxWidth, maxChars, internalPadding, defaultHeight, textWidth, textHeight, cornerRadius, rectWidth, rectHeight);
+    }
+
+    /**
+     * Returns whether this layout was computed for the given paint configuration
+     */
+    boolean matches(Paint paint, boolean isUpperCase, Locale locale, float textMaxWidth, int maxChars,
+                    float internalPadding, float defaultHeight) {
+        return mIsUpperCase == isUpperCase
+                && mLocale.equals(locale)
+                && mMaxChars == maxChars
+                && Float.compare(mTextMaxWidth, textMaxWidth) == 0
+                && Float.compare(mTextSize, paint.getTextSize()) == 0
+                && Float.compare(mStrokeWidth, paint.getStrokeWidth()) == 0
+                && Float.compare(mInternalPadding, internalPadding) == 0
+                && Float.compare(mDefaultHeight, defaultHeight) == 0
+                && (mTypeface != null ? mTypeface.equals(paint.getTypeface()) : paint.getTypeface() == null);
+    }
+
+    public String getOriginalText() {
+        return mOriginalText;
+    }
+
+    public String getText() {
+        return mText;
+    }
+
+    /**
+     * Returns the text which is drawn, ellipsized when it exceeded the max width or max chars
+     */
+    public String getDisplayText() {
+        return mDisplayText;
+    }
+
+    public float getTextWidth() {
+        return mTextWidth;
+    }
+
+    public float getTextHeight() {
+        return mTextHeight;
+    }
+
+    public float getCornerRadius() {
+        return mCornerRadius;
+    }
+
+    public int getRectWidth() {
+        return mRectWidth;
+    }
+
+    public int getRectHeight() {
+        return mRectHeight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChipLayout)) return false;
+
+        ChipLayout other = (ChipLayout) o;
+        return mIsUpperCase == other.mIsUpperCase
+                && mLocale.equals(other.mLocale)
+                && mMaxChars == other.mMaxChars
+                && Float.compare(mTextMaxWidth, other.mTextMaxWidth) == 0
+                && mRectWidth == other.mRectWidth
+                && mRectHeight == other.mRectHeight
+                && Float.compare(mTextSize, other.mTextSize) == 0
+                && Float.compare(mStrokeWidth, other.mStrokeWidth) == 0
+                && Float.compare(mInternalPadding, other.mInternalPadding) == 0
+                && Float.compare(mDefaultHeight, other.mDefaultHeight) == 0
+                && Float.compare(mTextWidth, other.mTextWidth) == 0
+                && Float.compare(mTextHeight, other.mTextHeight) == 0
+                && Float.compare(mCornerRadius, other.mCornerRadius) == 0
+                && (mTypeface != null ? mTypeface.equals(other.mTypeface) : other.mTypeface == null)
+                && mOriginalText.equals(other.mOriginalText)
+                && mText.equals(other.mText)
+                && mDisplayText.equals(other.mDisplayText);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mOriginalText.hashCode();
+        result = 31 * result + mText.hashCode();
+        result = 31 * result + mDisplayText.hashCode();
+        result = 31 * result + Float.floatToIntBits(mTextWidth);
+        result = 31 * result + Float.floatToIntBits(mTextHeight);
+        result = 31 * result + mRectWidth;
+        result = 31 * result + mRectHeight;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ChipLayout{" +
+                "text='" + mText + '\'' +
+                ", displayText='" + mDisplayText + '\'' +
+                ", textWidth=" + mTextWidth +
+                ", textHeight=" + mTextHeight +
+                ", cornerRadius=" + mCornerRadius +
+                ", rectWidth=" + mRectWidth +
+                ", rectHeight=" + mRectHeight +
+                '}';
+    }
+}
@@ -0,0 +1,256 @@
+package com.divshark.text_chip;
+
+import android.graphics.Rect;
+import android.os.Trace;
+import android.view.View;
+
+/**
+ * Optional instrumentation for the TextChip hot paths: call counts & latency histograms
+ * for computeBounds, onMeasure and onDraw, layout requests per property and cache hit rates.
+ * Each stage is also wrapped in a systrace section.
+ * <p>
+ * Off by default in release builds of the library; apps switch it on with
+ * {@link #setEnabled(boolean)}, once at startup. While it is off every call site is
+ * a single branch on {@link #isEnabled()}.
+ */
+public final class ChipMetrics {
+
+    // Read on every hot path, not volatile since it is meant to be set once at startup
+    private static boolean sEnabled = BuildConfig.TEXT_CHIP_METRICS;
+
+    // Instrumented stages
+    public static final int STAGE_COMPUTE_BOUNDS = 0;
+    public static final int STAGE_MEASURE = 1;
+    public static final int STAGE_DRAW = 2;
+
+    private static final String[] STAGE_NAMES = new String[] {"TextChip.computeBounds", "TextChip.onMeasure", "TextChip.onDraw"};
+
+    // Chip properties in the order of the TextChip change flags
+    private static final String[] PROPERTY_NAMES = new String[] {"text", "textColor", "textSize", "backgroundColor", "upperCase", "strokeWidth",
+            "maxSize", "typeface", "checked"};
+
+    /**
+     * Receives every recorded event, called on the thread that recorded it
+     */
+    public interface Listener {
+        void onStage(int stage, long durationNanos);
+        void onPropertyChanged(String property, boolean layoutRequested);
+    }
+
+    /**
+     * Receives the region each chip invalidates, the whole View for full invalidations
+     */
+    interface InvalidationListener {
+        void onInvalidate(View view, Rect dirty);
+    }
+
+    private static final Histogram[] HISTOGRAMS = new Histogram[STAGE_NAMES.length];
+    private static final long[] PROPERTY_UPDATES = new long[PROPERTY_NAMES.length];
+    private static final long[] PROPERTY_LAYOUTS = new long[PROPERTY_NAMES.length];
+
+    private static volatile Listener sListener;
+    private static volatile InvalidationListener sInvalidationListener;
+
+    static {
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new Histogram();
+        }
+    }
+
+    private ChipMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Switches the instrumentation on or off, e.g. from Application.onCreate for production traces
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    public static void setListener(Listener listener) {
+        sListener = listener;
+    }
+
+    static void setInvalidationListener(InvalidationListener listener) {
+        sInvalidationListener = listener;
+    }
+
+    /**
+     * Starts timing a stage, returns the start time to hand to {@link #endStage(int, long)}
+     */
+    static long beginStage(int stage) {
+        Trace.beginSection(STAGE_NAMES[stage]);
+        return System.nanoTime();
+    }
+
+    static void endStage(int stage, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        Trace.endSection();
+
+        HISTOGRAMS[stage].record(duration);
+
+        Listener listener = sListener;
+        if (listener != null) {
+            listener.onStage(stage, duration);
+        }
+    }
+
+    /**
+     * Records which properties changed and whether the change requested a layout pass
+     */
+    static void recordPropertyChanges(int changes, boolean layoutRequested) {
+        Listener listener = sListener;
+
+        synchronized (PROPERTY_UPDATES) {
+            for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+                if ((changes & (1 << i)) == 0) {
+                    continue;
+                }
+
+                PROPERTY_UPDATES[i]++;
+                if (layoutRequested) {
+                    PROPERTY_LAYOUTS[i]++;
+                }
+                if (listener != null) {
+                    listener.onPropertyChanged(PROPERTY_NAMES[i], layoutRequested);
+                }
+            }
+        }
+    }
+
+    static void recordInvalidation(View view, Rect dirty) {
+        InvalidationListener listener = sInvalidationListener;
+        if (listener != null) {
+            listener.onInvalidate(view, dirty);
+        }
+    }
+
+    public static String getStageName(int stage) {
+        return STAGE_NAMES[stage];
+    }
+
+    public static Histogram getHistogram(int stage) {
+        return HISTOGRAMS[stage];
+    }
+
+    /**
+     * Number of setter calls which changed the given property, e.g. "text" or "textColor"
+     */
+    public static long getPropertyUpdateCount(String property) {
+        int index = indexOf(property);
+        synchronized (PROPERTY_UPDATES) {
+            return PROPERTY_UPDATES[index];
+        }
+    }
+
+    /**
+     * Number of changes to the given property which requested a layout pass
+     */
+    public static long getPropertyLayoutCount(String property) {
+        int index = indexOf(property);
+        synchronized (PROPERTY_UPDATES) {
+            return PROPERTY_LAYOUTS[index];
+        }
+    }
+
+    public static float getMeasureCacheHitRate() {
+        TextMeasureCache cache = TextMeasureCache.getInstance();
+        return hitRate(cache.getHitCount(), cache.getMissCount());
+    }
+
+    public static float getSnapshotPoolHitRate() {
+        ChipSnapshotPool pool = ChipSnapshotPool.getInstance();
+        return hitRate(pool.getHitCount(), pool.getMissCount());
+    }
+
+    public static void reset() {
+        for (Histogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+        synchronized (PROPERTY_UPDATES) {
+            for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+                PROPERTY_UPDATES[i] = 0;
+                PROPERTY_LAYOUTS[i] = 0;
+            }
+        }
+    }
+
+    private static int indexOf(String property) {
+        for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+            if (PROPERTY_NAMES[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown property " + property);
+    }
+
+    private static float hitRate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0f : (float) hits / total;
+    }
+
+    /**
+     * Latency histogram with power of two nanosecond buckets
+     */
+    public static final class Histogram {
+
+        private static final int BUCKETS = 64;
+
+        private final long[] mBuckets = new long[BUCKETS];
+        private long mCount;
+        private long mTotalNanos;
+        private long mMaxNanos;
+
+        synchronized void record(long nanos) {
+            int bucket = nanos <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(nanos);
+            mBuckets[Math.min(bucket, BUCKETS - 1)]++;
+            mCount++;
+            mTotalNanos += nanos;
+            mMaxNanos = Math.max(mMaxNanos, nanos);
+        }
+
+        synchronized void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                mBuckets[i] = 0;
+            }
+            mCount = 0;
+            mTotalNanos = 0;
+            mMaxNanos = 0;
+        }
+
+        public synchronized long getCount() {
+            return mCount;
+        }
+
+        public synchronized long getMeanNanos() {
+            return mCount == 0 ? 0 : mTotalNanos / mCount;
+        }
+
+        public synchronized long getMaxNanos() {
+            return mMaxNanos;
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the given percentile (0 - 100)
+         */
+        public synchronized long getPercentileNanos(float percentile) {
+            if (mCount == 0) {
+                return 0;
+            }
+
+            long target = (long) Math.ceil(mCount * percentile / 100f);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += mBuckets[i];
+                if (seen >= target && mBuckets[i] > 0) {
+                    return i == 0 ? 0 : Math.min(mMaxNanos, (1L << i) - 1);
+                }
+            }
+            return mMaxNanos;
+        }
+    }
+}
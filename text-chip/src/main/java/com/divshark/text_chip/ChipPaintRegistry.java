@@ -0,0 +1,129 @@
+package com.divshark.text_chip;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.TextPaint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide registry of painters shared by every chip with the same style, keyed on color,
+ * text size, stroke width & typeface. Shared painters must never be modified, chips switch
+ * to a private copy before customizing them.
+ */
+final class ChipPaintRegistry {
+
+    // Styles kept around, chips hold on to their painters after an eviction
+    static final int MAX_PAINTS = 64;
+
+    private static final ChipPaintRegistry INSTANCE = new ChipPaintRegistry();
+
+    private final LinkedHashMap<Key, Paint> mPaints = new LinkedHashMap<Key, Paint>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Paint> eldest) {
+            return size() > MAX_PAINTS;
+        }
+    };
+
+    // Reused lookup key so lookups of known styles do not allocate
+    private final Key mProbe = new Key();
+
+    private ChipPaintRegistry() {
+    }
+
+    static ChipPaintRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    synchronized TextPaint obtainTextPaint(int color, float textSize, float strokeWidth, Typeface typeface) {
+        mProbe.set(true, color, textSize, strokeWidth, typeface);
+
+        TextPaint paint = (TextPaint) mPaints.get(mProbe);
+        if (paint == null) {
+            paint = new TextPaint();
+            paint.setStyle(Paint.Style.FILL_AND_STROKE);
+            paint.setColor(color);
+            paint.setTextSize(textSize);
+            paint.setStrokeWidth(strokeWidth);
+            paint.setTypeface(typeface);
+            mPaints.put(mProbe.copy(), paint);
+        }
+        return paint;
+    }
+
+    synchronized Paint obtainBackgroundPaint(int color) {
+        mProbe.set(false, color, 0f, 0f, null);
+
+        Paint paint = mPaints.get(mProbe);
+        if (paint == null) {
+            paint = new Paint();
+            paint.setStyle(Paint.Style.FILL_AND_STROKE);
+            paint.setColor(color);
+            mPaints.put(mProbe.copy(), paint);
+        }
+        return paint;
+    }
+
+    synchronized int size() {
+        return mPaints.size();
+    }
+
+    synchronized void clear() {
+        mPaints.clear();
+    }
+
+    private static final class Key {
+        private boolean text;
+        private int color;
+        private float textSize;
+        private float strokeWidth;
+        private Typeface typeface;
+        private int hash;
+
+        void set(boolean text, int color, float textSize, float strokeWidth, Typeface typeface) {
+            this.text = text;
+            this.color = color;
+            this.textSize = textSize;
+            this.strokeWidth = strokeWidth;
+            this.typeface = typeface;
+
+            int result = text ? 1 : 0;
+            result = 31 * result + color;
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(strokeWidth);
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            this.hash = result;
+        }
+
+        Key copy() {
+            Key key = new Key();
+            key.text = text;
+            key.color = color;
+            key.textSize = textSize;
+            key.strokeWidth = strokeWidth;
+            key.typeface = typeface;
+            key.hash = hash;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key other = (Key) o;
+            return hash == other.hash
+                    && text == other.text
+                    && color == other.color
+                    && Float.compare(textSize, other.textSize) == 0
+                    && Float.compare(strokeWidth, other.strokeWidth) == 0
+                    && (typeface != null ? typeface.equals(other.typeface) : other.typeface == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
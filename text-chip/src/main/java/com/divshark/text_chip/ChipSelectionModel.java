@@ -0,0 +1,139 @@
+package com.divshark.text_chip;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Selection state of a set of chips keyed by their index, one bit per chip. Toggles and
+ * queries are O(1), bulk changes report only the ranges of chips whose state flipped so
+ * just those chips are rebound.
+ */
+public class ChipSelectionModel {
+
+    /**
+     * Receives each contiguous range of chips whose selection changed
+     */
+    public interface OnSelectionChangedListener {
+
+        /**
+         * @param fromIndex first changed index, inclusive
+         * @param toIndex   last changed index, exclusive
+         */
+        void onSelectionChanged(ChipSelectionModel model, int fromIndex, int toIndex);
+    }
+
+    private final BitSet mSelected;
+    private int mItemCount;
+    private final List<OnSelectionChangedListener> mListeners = new ArrayList<>();
+
+    public ChipSelectionModel(int itemCount) {
+        this.mSelected = new BitSet(itemCount);
+        this.mItemCount = itemCount;
+    }
+
+    /**
+     * Adds a listener, e.g. an adapter showing the selection next to the app's own listener
+     */
+    public void addOnSelectionChangedListener(OnSelectionChangedListener listener) {
+        if (!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+    }
+
+    public void removeOnSelectionChangedListener(OnSelectionChangedListener listener) {
+        mListeners.remove(listener);
+    }
+
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    /**
+     * Changes the number of chips, selections past the new count are dropped
+     */
+    public void setItemCount(int itemCount) {
+        if (itemCount < mItemCount) {
+            mSelected.clear(itemCount, mItemCount);
+        }
+        this.mItemCount = itemCount;
+    }
+
+    public boolean isSelected(int index) {
+        checkIndex(index);
+        return mSelected.get(index);
+    }
+
+    public void setSelected(int index, boolean selected) {
+        checkIndex(index);
+        if (mSelected.get(index) == selected) {
+            return;
+        }
+
+        mSelected.set(index, selected);
+        dispatch(index, index + 1);
+    }
+
+    public void toggle(int index) {
+        checkIndex(index);
+        mSelected.flip(index);
+        dispatch(index, index + 1);
+    }
+
+    public int getSelectedCount() {
+        return mSelected.cardinality();
+    }
+
+    /**
+     * Returns the first selected index at or after fromIndex, -1 when there is none
+     */
+    public int nextSelected(int fromIndex) {
+        return mSelected.nextSetBit(fromIndex);
+    }
+
+    public void selectAll() {
+        // Previously unselected runs are the changed ranges
+        BitSet changed = (BitSet) mSelected.clone();
+        changed.flip(0, mItemCount);
+        mSelected.set(0, mItemCount);
+        dispatchRuns(changed);
+    }
+
+    public void clear() {
+        // Previously selected runs are the changed ranges
+        BitSet previous = (BitSet) mSelected.clone();
+        mSelected.clear();
+        dispatchRuns(previous);
+    }
+
+    public void invert() {
+        if (mItemCount == 0) {
+            return;
+        }
+
+        mSelected.flip(0, mItemCount);
+        dispatch(0, mItemCount);
+    }
+
+    private void dispatchRuns(BitSet changed) {
+        int start = changed.nextSetBit(0);
+        while (start >= 0 && start < mItemCount) {
+            int end = Math.min(changed.nextClearBit(start), mItemCount);
+            dispatch(start, end);
+            start = changed.nextSetBit(end);
+        }
+    }
+
+    private void dispatch(int fromIndex, int toIndex) {
+        // Backwards, so a listener may remove itself while it is notified
+        for (int i = mListeners.size() - 1; i >= 0; i--) {
+            mListeners.get(i).onSelectionChanged(this, fromIndex, toIndex);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= mItemCount) {
+            throw new IndexOutOfBoundsException("Index " + index + ", item count " + mItemCount);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.divshark.text_chip;
+
+import android.graphics.Bitmap;
+import android.graphics.Typeface;
+import android.util.LruCache;
+
+/**
+ * Size bounded pool of rendered chip bodies shared between TextChips with the same visual state
+ */
+public final class ChipSnapshotPool {
+
+    // Default pool size in bytes
+    public static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+    private static final ChipSnapshotPool INSTANCE = new ChipSnapshotPool(DEFAULT_MAX_BYTES);
+
+    private final LruCache<Key, Bitmap> mSnapshots;
+
+    ChipSnapshotPool(int maxBytes) {
+        mSnapshots = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+    }
+
+    public static ChipSnapshotPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the snapshot for the key or null when it has not been rendered
+     */
+    Bitmap get(Key key) {
+        return mSnapshots.get(key);
+    }
+
+    void put(Key key, Bitmap snapshot) {
+        mSnapshots.put(key, snapshot);
+    }
+
+    public int getMaxBytes() {
+        return mSnapshots.maxSize();
+    }
+
+    public void setMaxBytes(int maxBytes) {
+        mSnapshots.resize(maxBytes);
+    }
+
+    public int getHitCount() {
+        return mSnapshots.hitCount();
+    }
+
+    public int getMissCount() {
+        return mSnapshots.missCount();
+    }
+
+    public int getEvictionCount() {
+        return mSnapshots.evictionCount();
+    }
+
+    public void clear() {
+        mSnapshots.evictAll();
+    }
+
+    /**
+     * Everything that affects the pixels of a chip body
+     */
+    static final class Key {
+        private final String text;
+        private final int textColor;
+        private final int backgroundColor;
+        private final float textSize;
+        private final float strokeWidth;
+        private final Typeface typeface;
+        private final int width;
+        private final int height;
+        private final float left;
+        private final float top;
+        private final float right;
+        private final float bottom;
+        private final float cornerRadius;
+        private final float textX;
+        private final float textY;
+        private final int hash;
+
+        Key(String text, int textColor, int backgroundColor, float textSize, float strokeWidth, Typeface typeface,
+            int width, int height, float left, float top, float right, float bottom,
+            float cornerRadius, float textX, float textY) {
+            this.text = text;
+            this.textColor = textColor;
+            this.backgroundColor = backgroundColor;
+            this.textSize = textSize;
+            this.strokeWidth = strokeWidth;
+            this.typeface = typeface;
+            this.width = width;
+            this.height = height;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+            this.cornerRadius = cornerRadius;
+            this.textX = textX;
+            this.textY = textY;
+
+            int result = text.hashCode();
+            result = 31 * result + textColor;
+            result = 31 * result + backgroundColor;
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(strokeWidth);
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + Float.floatToIntBits(left);
+            result = 31 * result + Float.floatToIntBits(top);
+            result = 31 * result + Float.floatToIntBits(right);
+            result = 31 * result + Float.floatToIntBits(bottom);
+            result = 31 * result + Float.floatToIntBits(cornerRadius);
+            result = 31 * result + Float.floatToIntBits(textX);
+            result = 31 * result + Float.floatToIntBits(textY);
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key other = (Key) o;
+            return hash == other.hash
+                    && textColor == other.textColor
+                    && backgroundColor == other.backgroundColor
+                    && width == other.width
+                    && height == other.height
+                    && Float.compare(textSize, other.textSize) == 0
+                    && Float.compare(strokeWidth, other.strokeWidth) == 0
+                    && Float.compare(left, other.left) == 0
+                    && Float.compare(top, other.top) == 0
+                    && Float.compare(right, other.right) == 0
+                    && Float.compare(bottom, other.bottom) == 0
+                    && Float.compare(cornerRadius, other.cornerRadius) == 0
+                    && Float.compare(textX, other.textX) == 0
+                    && Float.compare(textY, other.textY) == 0
+                    && (typeface != null ? typeface.equals(other.typeface) : other.typeface == null)
+                    && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
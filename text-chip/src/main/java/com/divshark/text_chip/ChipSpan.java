@@ -0,0 +1,60 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.text.style.ReplacementSpan;
+
+/**
+ * Replaces a range of text with a chip drawn by a {@link TextChipDrawable}, vertically
+ * centered on the line. Inline chips cost their drawing only, no View is created.
+ */
+public class ChipSpan extends ReplacementSpan {
+
+    private final TextChipDrawable mDrawable;
+
+    public ChipSpan(Context context, CharSequence text) {
+        this(new TextChipDrawable(context, text));
+    }
+
+    public ChipSpan(Context context, CharSequence text, ChipStyle style) {
+        this(new TextChipDrawable(context, text, style));
+    }
+
+    public ChipSpan(TextChipDrawable drawable) {
+        this.mDrawable = drawable;
+    }
+
+    public TextChipDrawable getDrawable() {
+        return mDrawable;
+    }
+
+    @Override
+    public int getSize(Paint paint, CharSequence text, int start, int end, Paint.FontMetricsInt fm) {
+
+        // Grow the line when the chip is taller than the surrounding text
+        if (fm != null) {
+            int chipHeight = mDrawable.getIntrinsicHeight();
+            int lineHeight = fm.descent - fm.ascent;
+            if (chipHeight > lineHeight) {
+                int extra = chipHeight - lineHeight;
+                fm.ascent -= extra / 2;
+                fm.descent += extra - (extra / 2);
+                fm.top = Math.min(fm.top, fm.ascent);
+                fm.bottom = Math.max(fm.bottom, fm.descent);
+            }
+        }
+        return mDrawable.getIntrinsicWidth();
+    }
+
+    @Override
+    public void draw(Canvas canvas, CharSequence text, int start, int end, float x, int top, int y, int bottom,
+            Paint paint) {
+        int width = mDrawable.getIntrinsicWidth();
+        int height = mDrawable.getIntrinsicHeight();
+        int chipTop = top + ((bottom - top) - height) / 2;
+
+        mDrawable.setBounds((int) x, chipTop, (int) x + width, chipTop + height);
+        mDrawable.draw(canvas);
+    }
+}
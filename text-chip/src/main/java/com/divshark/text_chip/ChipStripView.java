@@ -0,0 +1,380 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Horizontally scrolling strip which draws a list of labels as chips on its own canvas.
+ * Only the chips inside the visible window are read, case transformed & measured, once each
+ * while they stay in view, so memory stays proportional to the visible chips rather than
+ * the number of labels.
+ */
+public class ChipStripView extends View {
+
+    // TAG for Logging
+    private static final String TAG = ChipStripView.class.getSimpleName();
+
+    // Default values
+    private static final float DEFAULT_ITEM_SPACING = 4f;
+
+    /**
+     * Notified when a chip in the strip is tapped
+     */
+    public interface OnChipClickListener {
+        void onChipClick(ChipStripView view, int index);
+    }
+
+    // Style of every chip in the strip, painters are shared through the ChipPaintRegistry
+    private ChipStyle mStyle;
+    private Locale mTextLocale;
+
+    private float mInternalPadding;
+    private float mDefaultHeight;
+    private float mItemSpacing;
+
+    // Shared by every chip since it only depends on the text painter
+    private float mTextHeight;
+    private float mChipHeight;
+    private float mCornerRadius;
+
+    private List<? extends CharSequence> mLabels = Collections.emptyList();
+
+    // Scroll position as the first visible label and its left edge relative to the content start
+    private int mFirstIndex;
+    private float mFirstOffset;
+
+    // Visible window, texts in display case & their widths, sized to the number of chips on screen
+    private int mVisibleCount;
+    private String[] mVisibleTexts = new String[0];
+    private float[] mVisibleTextWidths = new float[0];
+
+    // The window is rebuilt into these & swapped, chips staying in view keep their cached values
+    private String[] mSpareTexts = new String[0];
+    private float[] mSpareTextWidths = new float[0];
+
+    private final RectF mChipRect = new RectF();
+
+    private final GestureDetector mGestureDetector;
+    private OnChipClickListener mOnChipClickListener;
+
+    public ChipStripView(Context context) {
+        this(context, null);
+    }
+
+    public ChipStripView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        mGestureDetector = new GestureDetector(context, mGestureListener);
+        initDefaults(attrs);
+    }
+
+    public ChipStripView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+
+        mGestureDetector = new GestureDetector(context, mGestureListener);
+        initDefaults(attrs);
+    }
+
+    /**
+     * Sets the labels to show. The list is referenced, not copied, so it should not be
+     * modified without calling this method again.
+     */
+    public void setLabels(List<? extends CharSequence> labels) {
+        this.mLabels = labels != null ? labels : Collections.<CharSequence>emptyList();
+
+        // Cached texts belong to the previous labels
+        mVisibleCount = 0;
+        mFirstIndex = 0;
+        mFirstOffset = 0f;
+        updateVisibleWindow(0);
+        invalidate();
+    }
+
+    public int getLabelCount() {
+        return mLabels.size();
+    }
+
+    public void setOnChipClickListener(OnChipClickListener onChipClickListener) {
+        this.mOnChipClickListener = onChipClickListener;
+    }
+
+    public int getFirstVisibleIndex() {
+        return mFirstIndex;
+    }
+
+    public int getVisibleCount() {
+        return mVisibleCount;
+    }
+
+    /**
+     * Number of labels the window buffers can hold, grows with the chips on screen only
+     */
+    int getWindowCapacity() {
+        return Math.max(mVisibleTexts.length, mSpareTexts.length);
+    }
+
+    /**
+     * Scrolls the strip horizontally by dx pixels, positive values move towards the end
+     */
+    public void scrollChipsBy(float dx) {
+        if (mLabels.isEmpty() || dx == 0f) {
+            return;
+        }
+
+        int first = mFirstIndex;
+        float offset = mFirstOffset - dx;
+
+        // Drop chips that scrolled off the start
+        while (first < mLabels.size() - 1) {
+            float width = chipWidth(textWidthAt(first));
+            if (offset + width + mItemSpacing > 0f) {
+                break;
+            }
+            offset += width + mItemSpacing;
+            first++;
+        }
+
+        // Bring back chips that scrolled in from the start
+        while (offset > 0f && first > 0) {
+            first--;
+            offset -= chipWidth(textWidthAt(first)) + mItemSpacing;
+        }
+
+        if (first == 0 && offset > 0f) {
+            offset = 0f;
+        }
+
+        mFirstOffset = offset;
+        updateVisibleWindow(first);
+        clampToEnd();
+        invalidate();
+    }
+
+    /**
+     * Returns the index of the label under the given view coordinates, or -1
+     */
+    public int getIndexAt(float x, float y) {
+        float top = getPaddingTop();
+        if (y < top || y > top + mChipHeight) {
+            return -1;
+        }
+
+        float left = getPaddingLeft() + mFirstOffset;
+        for (int i = 0; i < mVisibleCount; i++) {
+            float right = left + chipWidth(mVisibleTextWidths[i]);
+            if (x >= left && x <= right) {
+                return mFirstIndex + i;
+            }
+            left = right + mItemSpacing;
+        }
+        return -1;
+    }
+
+    private void initDefaults(AttributeSet attrs) {
+
+        ChipStyleDefaults defaults = ChipStyleDefaults.get(getContext());
+        ChipStyle.Builder builder = new ChipStyle.Builder(getContext());
+
+        if (attrs != null) {
+
+            // Same styleable attributes as the TextChip
+            TypedArray typedArray = getContext().obtainStyledAttributes(attrs, R.styleable.TextChip);
+            builder.setAttributes(getContext(), typedArray);
+            typedArray.recycle();
+        }
+
+        mStyle = builder.build();
+        mTextLocale = defaults.locale;
+        mDefaultHeight = defaults.defaultHeight;
+        mInternalPadding = defaults.internalPadding;
+        mItemSpacing = DimensionResolver.get(getContext()).dpToPx(DEFAULT_ITEM_SPACING);
+
+        // Chip height does not depend on the label, only on the text painter
+        mTextHeight = mStyle.measurer.measureHeight();
+        mChipHeight = TextChip.rectHeight(mTextHeight, mInternalPadding, mDefaultHeight);
+        mCornerRadius = TextChip.cornerRadius(mTextHeight);
+    }
+
+    private String labelText(int index) {
+        return TextChip.transformCase(mLabels.get(index).toString(), mStyle.isUpperCase(), mTextLocale);
+    }
+
+    private float measureTextWidth(String text) {
+        return TextMeasureCache.getInstance().obtain(text, mStyle.getTextSize(), mStyle.getStrokeWidth(),
+                mStyle.getTypeface(), mStyle.isUpperCase(), mStyle.measurer).width;
+    }
+
+    /**
+     * Width of the label's text, from the window while the label is visible
+     */
+    private float textWidthAt(int index) {
+        int cached = index - mFirstIndex;
+        if (cached >= 0 && cached < mVisibleCount) {
+            return mVisibleTextWidths[cached];
+        }
+        return measureTextWidth(labelText(index));
+    }
+
+    private float chipWidth(float textWidth) {
+        return TextChip.rectWidth(textWidth, mInternalPadding);
+    }
+
+    /**
+     * Fills the window from the first index until the width is filled, only the labels
+     * entering the window are read & measured
+     */
+    private void updateVisibleWindow(int first) {
+        int size = mLabels.size();
+        float available = getWidth() - getPaddingLeft() - getPaddingRight();
+
+        int count = 0;
+        float left = mFirstOffset;
+        for (int i = first; i < size && (left < available || count == 0); i++) {
+            String text;
+            float textWidth;
+
+            int cached = i - mFirstIndex;
+            if (cached >= 0 && cached < mVisibleCount) {
+                text = mVisibleTexts[cached];
+                textWidth = mVisibleTextWidths[cached];
+            } else {
+                text = labelText(i);
+                textWidth = measureTextWidth(text);
+            }
+
+            ensureSpareCapacity(count + 1, count);
+            mSpareTexts[count] = text;
+            mSpareTextWidths[count] = textWidth;
+            count++;
+
+            left += chipWidth(textWidth) + mItemSpacing;
+        }
+
+        String[] texts = mVisibleTexts;
+        float[] widths = mVisibleTextWidths;
+        mVisibleTexts = mSpareTexts;
+        mVisibleTextWidths = mSpareTextWidths;
+        mSpareTexts = texts;
+        mSpareTextWidths = widths;
+
+        // Release labels which left the window
+        Arrays.fill(mSpareTexts, null);
+        Arrays.fill(mVisibleTexts, count, mVisibleTexts.length, null);
+
+        mFirstIndex = first;
+        mVisibleCount = count;
+    }
+
+    private void ensureSpareCapacity(int capacity, int count) {
+        if (mSpareTexts.length < capacity) {
+            int length = Math.max(capacity, mSpareTexts.length * 2);
+            String[] texts = new String[length];
+            float[] widths = new float[length];
+            System.arraycopy(mSpareTexts, 0, texts, 0, count);
+            System.arraycopy(mSpareTextWidths, 0, widths, 0, count);
+            mSpareTexts = texts;
+            mSpareTextWidths = widths;
+        }
+    }
+
+    /**
+     * Keeps the last chip against the end edge instead of scrolling past it
+     */
+    private void clampToEnd() {
+        if (mVisibleCount == 0 || mFirstIndex + mVisibleCount < mLabels.size()) {
+            return;
+        }
+
+        float available = getWidth() - getPaddingLeft() - getPaddingRight();
+        float right = mFirstOffset;
+        for (int i = 0; i < mVisibleCount; i++) {
+            right += chipWidth(mVisibleTextWidths[i]) + (i > 0 ? mItemSpacing : 0f);
+        }
+
+        if (right < available && (mFirstIndex > 0 || mFirstOffset < 0f)) {
+            int first = mFirstIndex;
+            float offset = mFirstOffset + available - right;
+            while (offset > 0f && first > 0) {
+                first--;
+                offset -= chipWidth(textWidthAt(first)) + mItemSpacing;
+            }
+            if (first == 0 && offset > 0f) {
+                offset = 0f;
+            }
+            mFirstOffset = offset;
+            updateVisibleWindow(first);
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        float top = getPaddingTop();
+        float left = getPaddingLeft() + mFirstOffset;
+
+        for (int i = 0; i < mVisibleCount; i++) {
+            float width = chipWidth(mVisibleTextWidths[i]);
+            mChipRect.set(left, top, left + width, top + mChipHeight);
+            TextChipDrawable.drawChip(canvas, mChipRect, mCornerRadius, mVisibleTexts[i], mVisibleTextWidths[i],
+                    mTextHeight, mStyle.backgroundPaint, mStyle.textPaint);
+            left += width + mItemSpacing;
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+
+        int desiredHeight = (int) (mChipHeight + getPaddingTop() + getPaddingBottom());
+
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        int height = resolveSize(desiredHeight, heightMeasureSpec);
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateVisibleWindow(mFirstIndex);
+        clampToEnd();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return mGestureDetector.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    private final GestureDetector.SimpleOnGestureListener mGestureListener = new GestureDetector.SimpleOnGestureListener() {
+        @Override
+        public boolean onDown(MotionEvent e) {
+            return true;
+        }
+
+        @Override
+        public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+            scrollChipsBy(distanceX);
+            return true;
+        }
+
+        @Override
+        public boolean onSingleTapUp(MotionEvent e) {
+            int index = getIndexAt(e.getX(), e.getY());
+            if (index != -1 && mOnChipClickListener != null) {
+                mOnChipClickListener.onChipClick(ChipStripView.this, index);
+                return true;
+            }
+            return false;
+        }
+    };
+}
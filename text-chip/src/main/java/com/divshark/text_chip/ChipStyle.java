@@ -0,0 +1,291 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.TextPaint;
+import android.util.SparseArray;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable, fully resolved chip style. Styles are compiled once, either from a style resource
+ * referenced by tc_chipStyle or through the {@link Builder}, and applied to any number of chips
+ * without parsing attributes or creating painters again.
+ */
+public final class ChipStyle {
+
+    // Compiled style resources per theme, released with the theme's Context
+    private static final Map<Object, Styles> CACHE = new WeakHashMap<>();
+
+    private final int mTextColor;
+    private final int mBackgroundColor;
+    private final float mTextSize;
+    private final float mStrokeWidth;
+    private final Typeface mTypeface;
+    private final boolean mUpperCase;
+    private final int mMaxWidth;
+    private final int mMaxChars;
+    private final boolean mCheckable;
+    private final int mCheckedTextColor;
+    private final int mCheckedBackgroundColor;
+
+    // Painters from the ChipPaintRegistry, resolved once for every chip using this style
+    final TextPaint textPaint;
+    final Paint backgroundPaint;
+
+    // Measures with the shared text painter, used by chips which never modify it
+    final TextMeasureCache.Measurer measurer;
+
+    private ChipStyle(Builder builder) {
+        this.mTextColor = builder.mTextColor;
+        this.mBackgroundColor = builder.mBackgroundColor;
+        this.mTextSize = builder.mTextSize;
+        this.mStrokeWidth = builder.mStrokeWidth;
+        this.mTypeface = builder.mTypeface;
+        this.mUpperCase = builder.mUpperCase;
+        this.mMaxWidth = builder.mMaxWidth;
+        this.mMaxChars = builder.mMaxChars;
+        this.mCheckable = builder.mCheckable;
+        this.mCheckedTextColor = builder.mCheckedTextColor;
+        this.mCheckedBackgroundColor = builder.mCheckedBackgroundColor;
+
+        ChipPaintRegistry registry = ChipPaintRegistry.getInstance();
+        this.textPaint = registry.obtainTextPaint(mTextColor, mTextSize, mStrokeWidth, mTypeface);
+        this.backgroundPaint = registry.obtainBackgroundPaint(mBackgroundColor);
+        this.measurer = new TextMeasureCache.PaintMeasurer(textPaint);
+    }
+
+    /**
+     * Returns the style chips get when nothing else is set
+     */
+    public static ChipStyle getDefault(Context context) {
+        return ChipStyleDefaults.get(context).getStyle();
+    }
+
+    /**
+     * Returns the compiled style resource, its TextChip attributes are only parsed the first
+     * time a style is requested for the context's theme
+     */
+    public static ChipStyle fromResource(Context context, int styleRes) {
+        Object key = context.getTheme() != null ? context.getTheme() : context.getResources();
+
+        synchronized (CACHE) {
+            // Pixel values are stale once the density or font scale change
+            long stamp = DimensionResolver.configurationStamp(context.getResources().getConfiguration());
+            Styles styles = CACHE.get(key);
+            if (styles == null || styles.configurationStamp != stamp) {
+                styles = new Styles(stamp);
+                CACHE.put(key, styles);
+            }
+
+            ChipStyle style = styles.get(styleRes);
+            if (style == null) {
+                TypedArray typedArray = context.obtainStyledAttributes(styleRes, R.styleable.TextChip);
+                try {
+                    style = new Builder(context).setAttributes(context, typedArray).build();
+                } finally {
+                    typedArray.recycle();
+                }
+                styles.put(styleRes, style);
+            }
+            return style;
+        }
+    }
+
+    static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    public int getTextColor() {
+        return mTextColor;
+    }
+
+    public int getBackgroundColor() {
+        return mBackgroundColor;
+    }
+
+    public float getTextSize() {
+        return mTextSize;
+    }
+
+    public float getStrokeWidth() {
+        return mStrokeWidth;
+    }
+
+    public Typeface getTypeface() {
+        return mTypeface;
+    }
+
+    public boolean isUpperCase() {
+        return mUpperCase;
+    }
+
+    public int getMaxWidth() {
+        return mMaxWidth;
+    }
+
+    public int getMaxChars() {
+        return mMaxChars;
+    }
+
+    public boolean isCheckable() {
+        return mCheckable;
+    }
+
+    public int getCheckedTextColor() {
+        return mCheckedTextColor;
+    }
+
+    public int getCheckedBackgroundColor() {
+        return mCheckedBackgroundColor;
+    }
+
+    /**
+     * Builds a {@link ChipStyle}, starting from the default chip values of a theme
+     */
+    public static final class Builder {
+
+        private int mTextColor;
+        private int mBackgroundColor;
+        private float mTextSize;
+        private float mStrokeWidth;
+        private Typeface mTypeface;
+        private boolean mUpperCase = true;
+        private int mMaxWidth = Integer.MAX_VALUE;
+        private int mMaxChars = TextMeasureCache.NO_MAX_CHARS;
+        private boolean mCheckable;
+        private int mCheckedTextColor;
+        private int mCheckedBackgroundColor;
+
+        public Builder(Context context) {
+            this(ChipStyleDefaults.get(context));
+        }
+
+        Builder(ChipStyleDefaults defaults) {
+            this.mTextColor = defaults.textColor;
+            this.mBackgroundColor = defaults.backgroundColor;
+            this.mTextSize = defaults.textSize;
+            this.mStrokeWidth = defaults.strokeWidth;
+            this.mCheckedTextColor = defaults.checkedTextColor;
+            this.mCheckedBackgroundColor = defaults.checkedBackgroundColor;
+        }
+
+        public Builder(ChipStyle style) {
+            this.mTextColor = style.mTextColor;
+            this.mBackgroundColor = style.mBackgroundColor;
+            this.mTextSize = style.mTextSize;
+            this.mStrokeWidth = style.mStrokeWidth;
+            this.mTypeface = style.mTypeface;
+            this.mUpperCase = style.mUpperCase;
+            this.mMaxWidth = style.mMaxWidth;
+            this.mMaxChars = style.mMaxChars;
+            this.mCheckable = style.mCheckable;
+            this.mCheckedTextColor = style.mCheckedTextColor;
+            this.mCheckedBackgroundColor = style.mCheckedBackgroundColor;
+        }
+
+        public Builder setTextColor(int textColor) {
+            this.mTextColor = textColor;
+            return this;
+        }
+
+        public Builder setBackgroundColor(int backgroundColor) {
+            this.mBackgroundColor = backgroundColor;
+            return this;
+        }
+
+        public Builder setTextSize(float textSize) {
+            this.mTextSize = textSize;
+            return this;
+        }
+
+        public Builder setStrokeWidth(float strokeWidth) {
+            this.mStrokeWidth = strokeWidth;
+            return this;
+        }
+
+        public Builder setTypeface(Typeface typeface) {
+            this.mTypeface = typeface;
+            return this;
+        }
+
+        public Builder setFontFamily(Context context, String fontFamily) {
+            this.mTypeface = ChipTypefaces.get(context, fontFamily);
+            return this;
+        }
+
+        public Builder setUpperCase(boolean upperCase) {
+            this.mUpperCase = upperCase;
+            return this;
+        }
+
+        public Builder setMaxWidth(int maxWidth) {
+            this.mMaxWidth = maxWidth;
+            return this;
+        }
+
+        public Builder setMaxChars(int maxChars) {
+            this.mMaxChars = maxChars;
+            return this;
+        }
+
+        public Builder setCheckable(boolean checkable) {
+            this.mCheckable = checkable;
+            return this;
+        }
+
+        public Builder setCheckedTextColor(int checkedTextColor) {
+            this.mCheckedTextColor = checkedTextColor;
+            return this;
+        }
+
+        public Builder setCheckedBackgroundColor(int checkedBackgroundColor) {
+            this.mCheckedBackgroundColor = checkedBackgroundColor;
+            return this;
+        }
+
+        /**
+         * Overrides the values present in TextChip attributes
+         */
+        Builder setAttributes(Context context, TypedArray typedArray) {
+            mBackgroundColor = typedArray.getColor(R.styleable.TextChip_tc_backgroundColor, mBackgroundColor);
+            mTextColor = typedArray.getColor(R.styleable.TextChip_tc_textColor, mTextColor);
+            mTextSize = typedArray.getDimension(R.styleable.TextChip_tc_textSize, mTextSize);
+            mStrokeWidth = typedArray.getDimension(R.styleable.TextChip_tc_strokeWidth, mStrokeWidth);
+            mUpperCase = typedArray.getBoolean(R.styleable.TextChip_tc_upperCase, mUpperCase);
+            mMaxWidth = typedArray.getDimensionPixelSize(R.styleable.TextChip_tc_maxWidth, mMaxWidth);
+            mMaxChars = typedArray.getInt(R.styleable.TextChip_tc_maxChars, mMaxChars);
+            mCheckable = typedArray.getBoolean(R.styleable.TextChip_tc_checkable, mCheckable);
+            mCheckedTextColor = typedArray.getColor(R.styleable.TextChip_tc_checkedTextColor, mCheckedTextColor);
+            mCheckedBackgroundColor = typedArray.getColor(R.styleable.TextChip_tc_checkedBackgroundColor,
+                    mCheckedBackgroundColor);
+
+            String fontFamily = typedArray.getString(R.styleable.TextChip_tc_fontFamily);
+            if (fontFamily != null) {
+                mTypeface = ChipTypefaces.get(context, fontFamily);
+            }
+            return this;
+        }
+
+        public ChipStyle build() {
+            return new ChipStyle(this);
+        }
+    }
+
+    /**
+     * Styles compiled for one theme with the configuration they were resolved in
+     */
+    private static final class Styles extends SparseArray<ChipStyle> {
+
+        final long configurationStamp;
+
+        Styles(long configurationStamp) {
+            this.configurationStamp = configurationStamp;
+        }
+    }
+}
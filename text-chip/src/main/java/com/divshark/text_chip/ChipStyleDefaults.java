@@ -0,0 +1,108 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Default chip values resolved once per theme and shared by every chip created with it.
+ * They are resolved again when the density, font scale or locale of the theme change.
+ */
+final class ChipStyleDefaults {
+
+    // Defaults per theme, released with the theme's Context
+    private static final Map<Object, ChipStyleDefaults> CACHE = new WeakHashMap<>();
+
+    final int backgroundColor;
+    final int textColor;
+    final int checkedBackgroundColor;
+    final int checkedTextColor;
+    final float textSize;
+    final float strokeWidth;
+    final float defaultHeight;
+    final float internalPadding;
+
+    // Locale of the resources, labels are upper cased with it
+    final Locale locale;
+
+    private final Resources mResources;
+    private final long mConfigurationStamp;
+    private final Drawable.ConstantState mForegroundState;
+
+    // Style of chips without a tc_chipStyle, compiled on first use
+    private ChipStyle mStyle;
+
+    private ChipStyleDefaults(Context context) {
+        mResources = context.getResources();
+
+        backgroundColor = Color.parseColor(TextChip.DEFAULT_BG_COLOR);
+        textColor = mResources.getColor(R.color.primary_black);
+        checkedBackgroundColor = mResources.getColor(R.color.primary_color);
+        checkedTextColor = mResources.getColor(R.color.primary_white);
+        // Converted in one pass with the cached density
+        float[] dimensions = new float[] {TextChip.DEFAULT_TEXT_SIZE, TextChip.DEFAULT_STROKE_WIDTH, TextChip.HEIGHT,
+                2 * TextChip.PADDING};
+        DimensionResolver.get(context).dpToPx(dimensions, dimensions);
+
+        textSize = dimensions[0];
+        strokeWidth = dimensions[1];
+        defaultHeight = dimensions[2];
+
+        // Compute the internal padding
+        internalPadding = dimensions[3];
+
+        Configuration configuration = mResources.getConfiguration();
+        locale = configuration.locale;
+        mConfigurationStamp = DimensionResolver.configurationStamp(configuration);
+
+        mForegroundState = mResources.getDrawable(R.drawable.chip_selector).getConstantState();
+    }
+
+    static ChipStyleDefaults get(Context context) {
+        Object key = context.getTheme() != null ? context.getTheme() : context.getResources();
+
+        synchronized (CACHE) {
+            ChipStyleDefaults defaults = CACHE.get(key);
+            if (defaults == null || !defaults.isCurrent(context.getResources().getConfiguration())) {
+                defaults = new ChipStyleDefaults(context);
+                CACHE.put(key, defaults);
+            }
+            return defaults;
+        }
+    }
+
+    /**
+     * Whether the pixel values & locale were resolved with the given configuration
+     */
+    boolean isCurrent(Configuration configuration) {
+        return mConfigurationStamp == DimensionResolver.configurationStamp(configuration)
+                && locale.equals(configuration.locale);
+    }
+
+    synchronized ChipStyle getStyle() {
+        if (mStyle == null) {
+            mStyle = new ChipStyle.Builder(this).build();
+        }
+        return mStyle;
+    }
+
+    static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Returns a new chip_selector drawable sharing the cached constant state,
+     * mutated so state changes do not leak between chips
+     */
+    Drawable newForegroundDrawable() {
+        return mForegroundState.newDrawable(mResources).mutate();
+    }
+}
@@ -0,0 +1,159 @@
+package com.divshark.text_chip;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.text.GetChars;
+
+import java.util.Locale;
+
+/**
+ * Reusable char copy of non String chip text which is case transformed, measured & drawn
+ * in place, so editable buffers and reused StringBuilders are shown without a String per update
+ */
+final class ChipTextBuffer {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    // Copy of the text as it was set
+    private char[] mSource = new char[INITIAL_CAPACITY];
+    private int mSourceLength;
+
+    // Transformed text, trimmed to [mStart, mEnd)
+    private char[] mChars = new char[INITIAL_CAPACITY];
+    private int mStart;
+    private int mEnd;
+
+    // Chars drawn from mStart, followed by an ellipsis at mEllipsisX when truncated
+    private int mDisplayCount;
+    private boolean mEllipsized;
+    private float mEllipsisX;
+
+    private final float[] mMeasuredWidth = new float[1];
+
+    /**
+     * Returns whether the buffer holds the same chars as the text, without copying it
+     */
+    boolean contentEquals(CharSequence text) {
+        int length = text.length();
+        if (length != mSourceLength) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) != mSource[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void set(CharSequence text) {
+        int length = text.length();
+        if (length > mSource.length) {
+            int capacity = Math.max(length, mSource.length * 2);
+            mSource = new char[capacity];
+            mChars = new char[capacity];
+        }
+
+        if (text instanceof String) {
+            ((String) text).getChars(0, length, mSource, 0);
+        } else if (text instanceof StringBuilder) {
+            ((StringBuilder) text).getChars(0, length, mSource, 0);
+        } else if (text instanceof GetChars) {
+            ((GetChars) text).getChars(0, length, mSource, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                mSource[i] = text.charAt(i);
+            }
+        }
+        mSourceLength = length;
+    }
+
+    /**
+     * Trims the text like String.trim() and upper cases it in place. Returns false when the
+     * text needs locale specific case mapping, which only String.toUpperCase(Locale) handles.
+     */
+    boolean transform(boolean upperCase, Locale locale) {
+        int start = 0;
+        int end = mSourceLength;
+        while (start < end && mSource[start] <= ' ') {
+            start++;
+        }
+        while (end > start && mSource[end - 1] <= ' ') {
+            end--;
+        }
+
+        // Turkish & Azerbaijani upper case 'i' to a dotted capital I
+        String language = locale.getLanguage();
+        boolean dottedI = "tr".equals(language) || "az".equals(language);
+
+        for (int i = start; i < end; i++) {
+            char c = mSource[i];
+            if (upperCase) {
+                // Outside Latin-1 and for the sharp s a char can map to several chars
+                if (c >= 0x100 || c == '\u00DF' || (dottedI && c == 'i')) {
+                    return false;
+                }
+                c = Character.toUpperCase(c);
+            }
+            mChars[i] = c;
+        }
+
+        mStart = start;
+        mEnd = end;
+        mDisplayCount = end - start;
+        mEllipsized = false;
+        return true;
+    }
+
+    /**
+     * Measures the transformed text, end ellipsizing it to maxWidth & maxChars, and returns its width
+     */
+    float measure(Paint paint, float maxWidth, int maxChars) {
+        int count = mEnd - mStart;
+        int limit = Math.min(count, Math.max(0, maxChars));
+        mEllipsized = false;
+
+        if (maxWidth == TextMeasureCache.NO_MAX_WIDTH && limit == count) {
+            mDisplayCount = count;
+            return paint.measureText(mChars, mStart, count);
+        }
+
+        int fit = paint.breakText(mChars, mStart, limit, maxWidth, mMeasuredWidth);
+        if (fit == count) {
+            mDisplayCount = count;
+            return mMeasuredWidth[0];
+        }
+
+        // Leave room for the ellipsis
+        float ellipsisWidth = paint.measureText(TextMeasureCache.ELLIPSIS);
+        fit = paint.breakText(mChars, mStart, Math.min(fit, limit), Math.max(0f, maxWidth - ellipsisWidth), mMeasuredWidth);
+        while (fit > 0 && mChars[mStart + fit - 1] <= ' ') {
+            fit--;
+        }
+
+        mDisplayCount = fit;
+        mEllipsized = true;
+        mEllipsisX = fit > 0 ? paint.measureText(mChars, mStart, fit) : 0f;
+        return mEllipsisX + ellipsisWidth;
+    }
+
+    void draw(Canvas canvas, float x, float y, Paint paint) {
+        canvas.drawText(mChars, mStart, mDisplayCount, x, y, paint);
+        if (mEllipsized) {
+            canvas.drawText(TextMeasureCache.ELLIPSIS, x + mEllipsisX, y, paint);
+        }
+    }
+
+    String getSourceText() {
+        return new String(mSource, 0, mSourceLength);
+    }
+
+    String getText() {
+        return new String(mChars, mStart, mEnd - mStart);
+    }
+
+    String getDisplayText() {
+        String text = new String(mChars, mStart, mDisplayCount);
+        return mEllipsized ? text + TextMeasureCache.ELLIPSIS : text;
+    }
+}
@@ -0,0 +1,54 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Typefaces for the tc_fontFamily attribute, loaded once per process. Values ending in .ttf
+ * or .otf are loaded from the assets, anything else is a system family such as "sans-serif-medium".
+ */
+final class ChipTypefaces {
+
+    // TAG for Logging
+    private static final String TAG = ChipTypefaces.class.getSimpleName();
+
+    private static final Map<String, Typeface> CACHE = new HashMap<>();
+
+    private ChipTypefaces() {
+    }
+
+    static Typeface get(Context context, String fontFamily) {
+        synchronized (CACHE) {
+            Typeface typeface = CACHE.get(fontFamily);
+            if (typeface == null) {
+                typeface = load(context, fontFamily);
+                CACHE.put(fontFamily, typeface);
+            }
+            return typeface;
+        }
+    }
+
+    private static Typeface load(Context context, String fontFamily) {
+        if (!fontFamily.endsWith(".ttf") && !fontFamily.endsWith(".otf")) {
+            return Typeface.create(fontFamily, Typeface.NORMAL);
+        }
+
+        try {
+            return Typeface.createFromAsset(context.getApplicationContext().getAssets(), fontFamily);
+        } catch (RuntimeException e) {
+            // Cached as well, so a missing font is only reported once
+            Log.w(TAG, "Unable to load font asset " + fontFamily, e);
+            return Typeface.DEFAULT;
+        }
+    }
+
+    static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+}
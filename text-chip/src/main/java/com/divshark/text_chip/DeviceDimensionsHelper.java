@@ -1,27 +1,20 @@
 package com.divshark.text_chip;
 
 import android.content.Context;
-import android.content.res.Resources;
-import android.util.DisplayMetrics;
-import android.util.TypedValue;
 
 /**
- * Utils class for pixel and dp conversion
+ * Utils class for pixel and dp conversion, backed by the cached {@link DimensionResolver}
  * Created by kyle.jablonski on 4/22/16.
  */
 public class DeviceDimensionsHelper {
 
     // DeviceDimensionsHelper.convertDpToPixel(25f, context) => (25dp converted to pixels)
     public static float convertDpToPixel(float dp, Context context){
-        Resources r = context.getResources();
-        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dp, r.getDisplayMetrics());
+        return DimensionResolver.get(context).dpToPx(dp);
     }
 
     // DeviceDimensionsHelper.convertPixelsToDp(25f, context) => (25px converted to dp)
     public static float convertPixelsToDp(float px, Context context){
-        Resources r = context.getResources();
-        DisplayMetrics metrics = r.getDisplayMetrics();
-        float dp = px / (metrics.densityDpi / 160f);
-        return dp;
+        return DimensionResolver.get(context).pxToDp(px);
     }
 }
@@ -0,0 +1,154 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.util.DisplayMetrics;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Converts between dp, sp & pixels with a snapshot of the display density. The snapshot is
+ * taken once per Configuration and only read again when the density or font scale change,
+ * so conversions never go through {@link Resources#getDisplayMetrics()}.
+ */
+public final class DimensionResolver {
+
+    // Resolvers per Resources, released with them since a resolver only holds its Resources weakly
+    private static final Map<Resources, DimensionResolver> CACHE = new WeakHashMap<>();
+
+    /**
+     * Supplies the display values, backed by the Resources outside of tests
+     */
+    interface Source {
+
+        /**
+         * Returns a value which changes with the density & font scale, read before every conversion
+         */
+        long getConfigurationStamp();
+
+        /**
+         * Returns the density & the scaled density, only read when the stamp changed
+         */
+        void readDensity(float[] out);
+    }
+
+    private final Source mSource;
+    private final float[] mDensity = new float[2];
+
+    private long mStamp;
+    private boolean mResolved;
+
+    DimensionResolver(Source source) {
+        this.mSource = source;
+    }
+
+    public static DimensionResolver get(Context context) {
+        Resources resources = context.getResources();
+
+        synchronized (CACHE) {
+            DimensionResolver resolver = CACHE.get(resources);
+            if (resolver == null) {
+                resolver = new DimensionResolver(new ResourcesSource(resources));
+                CACHE.put(resources, resolver);
+            }
+            return resolver;
+        }
+    }
+
+    public float dpToPx(float dp) {
+        return dp * density();
+    }
+
+    public float pxToDp(float px) {
+        return px / density();
+    }
+
+    public float spToPx(float sp) {
+        return sp * scaledDensity();
+    }
+
+    /**
+     * Converts dp values to pixels, px may be the same array as dp
+     */
+    public void dpToPx(float[] dp, float[] px) {
+        float density = density();
+        for (int i = 0; i < dp.length; i++) {
+            px[i] = dp[i] * density;
+        }
+    }
+
+    /**
+     * Converts pixel values to dp, dp may be the same array as px
+     */
+    public void pxToDp(float[] px, float[] dp) {
+        float density = density();
+        for (int i = 0; i < px.length; i++) {
+            dp[i] = px[i] / density;
+        }
+    }
+
+    /**
+     * Drops the snapshot, the next conversion reads the display values again
+     */
+    public synchronized void invalidate() {
+        mResolved = false;
+    }
+
+    private synchronized float density() {
+        ensureCurrent();
+        return mDensity[0];
+    }
+
+    private synchronized float scaledDensity() {
+        ensureCurrent();
+        return mDensity[1];
+    }
+
+    private void ensureCurrent() {
+        long stamp = mSource.getConfigurationStamp();
+        if (!mResolved || stamp != mStamp) {
+            mSource.readDensity(mDensity);
+            mStamp = stamp;
+            mResolved = true;
+        }
+    }
+
+    /**
+     * Returns a value which changes with the density & font scale of the configuration
+     */
+    static long configurationStamp(Configuration configuration) {
+        return ((long) configuration.densityDpi << 32) | (Float.floatToIntBits(configuration.fontScale) & 0xFFFFFFFFL);
+    }
+
+    private static final class ResourcesSource implements Source {
+
+        // Weak, a strong reference from the cached value would keep its WeakHashMap key alive
+        private final WeakReference<Resources> mResources;
+
+        ResourcesSource(Resources resources) {
+            this.mResources = new WeakReference<>(resources);
+        }
+
+        @Override
+        public long getConfigurationStamp() {
+            Resources resources = mResources.get();
+            return resources != null ? configurationStamp(resources.getConfiguration()) : 0L;
+        }
+
+        @Override
+        public void readDensity(float[] out) {
+            // Keeps the last snapshot once the Resources are gone
+            Resources resources = mResources.get();
+            if (resources == null) {
+                return;
+            }
+
+            DisplayMetrics metrics = resources.getDisplayMetrics();
+            out[0] = metrics.density;
+            out[1] = metrics.scaledDensity;
+        }
+    }
+}
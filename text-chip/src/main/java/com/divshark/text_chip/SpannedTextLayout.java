@@ -0,0 +1,148 @@
+package com.divshark.text_chip;
+
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.text.style.CharacterStyle;
+import android.text.style.SuggestionSpan;
+
+import java.util.Locale;
+
+/**
+ * Case transformed copy of spanned chip text along with its single line StaticLayouts.
+ * Layouts are only rebuilt when the painter, text size, stroke width, typeface or limits change,
+ * color changes are picked up from the shared text painter when drawing.
+ */
+final class SpannedTextLayout {
+
+    private final Spanned mText;
+
+    // Paint the layouts were built with & its configuration, chips swap painters on customization
+    private TextPaint mPaint;
+    private float mTextSize = -1f;
+    private float mStrokeWidth = -1f;
+    private Typeface mTypeface;
+    private int mMaxChars = -1;
+
+    // onMeasure starts from the unconstrained layout, so it is kept next to the ellipsized one
+    private StaticLayout mFullLayout;
+    private StaticLayout mTruncatedLayout;
+    private float mTruncatedMaxWidth;
+
+    private SpannedTextLayout(Spanned text) {
+        this.mText = text;
+    }
+
+    /**
+     * Returns whether the text carries spans which change how it is drawn, such as bold or color ranges
+     */
+    static boolean hasCharacterStyles(CharSequence text) {
+        if (!(text instanceof Spanned)) {
+            return false;
+        }
+        Spanned spanned = (Spanned) text;
+
+        // Most editable buffers have no styles at all, check that without allocating
+        if (spanned.nextSpanTransition(0, spanned.length(), CharacterStyle.class) >= spanned.length()) {
+            return false;
+        }
+
+        for (CharacterStyle style : spanned.getSpans(0, spanned.length(), CharacterStyle.class)) {
+            if (isDrawnStyle(spanned, style)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spell check suggestions & IME composing styles belong to the editor the text came from
+     */
+    private static boolean isDrawnStyle(Spanned text, CharacterStyle style) {
+        return !(style instanceof SuggestionSpan) && (text.getSpanFlags(style) & Spanned.SPAN_COMPOSING) == 0;
+    }
+
+    /**
+     * Trims & case transforms the text, keeping its character styles when the length is preserved
+     */
+    static SpannedTextLayout create(Spanned text, boolean isUpperCase, Locale locale) {
+        String plain = text.toString();
+
+        int start = 0;
+        int end = plain.length();
+        while (start < end && plain.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && plain.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        String trimmed = plain.substring(start, end);
+        String transformed = isUpperCase ? trimmed.toUpperCase(locale) : trimmed;
+
+        SpannableString result = new SpannableString(transformed);
+        if (transformed.length() == trimmed.length()) {
+            for (CharacterStyle style : text.getSpans(start, end, CharacterStyle.class)) {
+                if (!isDrawnStyle(text, style)) {
+                    continue;
+                }
+                int spanStart = Math.max(start, text.getSpanStart(style)) - start;
+                int spanEnd = Math.min(end, text.getSpanEnd(style)) - start;
+                if (spanStart < spanEnd) {
+                    result.setSpan(style, spanStart, spanEnd, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                }
+            }
+        }
+        return new SpannedTextLayout(result);
+    }
+
+    Spanned getText() {
+        return mText;
+    }
+
+    StaticLayout obtain(TextPaint paint, float maxWidth, int maxChars) {
+        if (mPaint != paint
+                || Float.compare(mTextSize, paint.getTextSize()) != 0
+                || Float.compare(mStrokeWidth, paint.getStrokeWidth()) != 0
+                || mTypeface != paint.getTypeface()
+                || mMaxChars != maxChars) {
+            mPaint = paint;
+            mTextSize = paint.getTextSize();
+            mStrokeWidth = paint.getStrokeWidth();
+            mTypeface = paint.getTypeface();
+            mMaxChars = maxChars;
+            mFullLayout = null;
+            mTruncatedLayout = null;
+        }
+
+        if (maxWidth == TextMeasureCache.NO_MAX_WIDTH) {
+            if (mFullLayout == null) {
+                mFullLayout = build(paint, maxWidth, maxChars);
+            }
+            return mFullLayout;
+        }
+
+        if (mTruncatedLayout == null || Float.compare(mTruncatedMaxWidth, maxWidth) != 0) {
+            mTruncatedLayout = build(paint, maxWidth, maxChars);
+            mTruncatedMaxWidth = maxWidth;
+        }
+        return mTruncatedLayout;
+    }
+
+    private StaticLayout build(TextPaint paint, float maxWidth, int maxChars) {
+        CharSequence text = mText;
+        if (maxChars < text.length()) {
+            text = TextUtils.concat(text.subSequence(0, Math.max(0, maxChars)), TextMeasureCache.ELLIPSIS);
+        }
+        if (maxWidth != TextMeasureCache.NO_MAX_WIDTH) {
+            text = TextUtils.ellipsize(text, paint, maxWidth, TextUtils.TruncateAt.END);
+        }
+
+        int width = (int) Math.ceil(Layout.getDesiredWidth(text, paint));
+        return new StaticLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, false);
+    }
+}
@@ -1,41 +1,94 @@
 package com.divshark.text_chip;
 
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
+import android.text.Layout;
+import android.text.Spanned;
+import android.text.SpannedString;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.view.Choreographer;
 import android.view.View;
+import android.widget.Checkable;
+
+import java.util.Locale;
 
 /**
  * Text Chip View
  * Created by kyle.jablonski on 4/22/16.
  */
-public final class TextChip extends View {
+public final class TextChip extends View implements Checkable {
 
     // TAG for Logging
     private static final String TAG = TextChip.class.getSimpleName();
 
-    // Default values
+    // Default values, shared with the other chip renderers in this package
     private static final String TEXT_CHIP = "Text Chip";
-    private static final float HEIGHT = 32f;
-    private static final float PADDING = 6f;
-    private static final float DEFAULT_TEXT_SIZE = 26f;
-    private static final float CHIP_CORNER_RADIUS = 2f;
-    private static final float DEFAULT_STROKE_WIDTH = 0.5f;
+    static final float HEIGHT = 32f;
+    static final float PADDING = 6f;
+    static final float DEFAULT_TEXT_SIZE = 26f;
+    static final float CHIP_CORNER_RADIUS = 2f;
+    static final float DEFAULT_STROKE_WIDTH = 0.5f;
+
+    static final String DEFAULT_BG_COLOR = "#EBEBEB";
+    static final long DEFAULT_TRANSITION_DURATION = 200L;
+
+    // Property change flags
+    private static final int CHANGE_TEXT = 1;
+    private static final int CHANGE_TEXT_COLOR = 1 << 1;
+    private static final int CHANGE_TEXT_SIZE = 1 << 2;
+    private static final int CHANGE_BACKGROUND_COLOR = 1 << 3;
+    private static final int CHANGE_UPPER_CASE = 1 << 4;
+    private static final int CHANGE_STROKE_WIDTH = 1 << 5;
+    private static final int CHANGE_MAX_SIZE = 1 << 6;
+    private static final int CHANGE_TYPEFACE = 1 << 7;
+    private static final int CHANGE_CHECKED = 1 << 8;
+
+    // Every property held by a ChipStyle
+    private static final int CHANGES_STYLE = CHANGE_TEXT_COLOR | CHANGE_TEXT_SIZE | CHANGE_BACKGROUND_COLOR
+            | CHANGE_UPPER_CASE | CHANGE_STROKE_WIDTH | CHANGE_MAX_SIZE | CHANGE_TYPEFACE;
+
+    // Paint only properties (colors) never change the measured size
+    private static final int CHANGES_AFFECTING_BOUNDS = CHANGE_TEXT | CHANGE_TEXT_SIZE | CHANGE_UPPER_CASE
+            | CHANGE_STROKE_WIDTH | CHANGE_MAX_SIZE | CHANGE_TYPEFACE;
+
+    private static final int[] CHECKED_STATE_SET = new int[] {android.R.attr.state_checked};
+
+    // How the text is stored, measured & drawn
+    private static final int TEXT_MODE_STRING = 0;
+    private static final int TEXT_MODE_CHARS = 1;
+    private static final int TEXT_MODE_SPANNED = 2;
+
+    // Painters, shared through the ChipPaintRegistry until the chip is customized,
+    // see editTextPaint() & editBackgroundPaint()
+    private TextPaint mTextPaint;
+    private Paint mBackgroundPaint;
+    private boolean mOwnsTextPaint;
+    private boolean mOwnsBackgroundPaint;
 
-    private static final String DEFAULT_BG_COLOR = "#EBEBEB";
+    // Background RectF for the Chip, updated in place by computeBounds()
+    private final RectF mRoundedRect = new RectF();
 
-    // Painters
-    private Paint mTextPaint;
-    private Paint mBackgroundPaint;
+    // Text origin, precomputed whenever the bounds or the View size change
+    private float mTextX;
+    private float mTextY;
+
+    // Area covered by the text, invalidated on its own for text color changes
+    private final Rect mTextBounds = new Rect();
 
-    // Background RectF for the Chip
-    private RectF mRoundedRect;
+    // Region handed to invalidate() for partial redraws
+    private final Rect mDirtyRect = new Rect();
 
     // Styleable attributes
     private int mTextColor;
@@ -45,8 +98,37 @@ public final class TextChip extends View {
     private float mTextWidth;
     private String mText;
     private String mOriginalText;
+
+    // Non String text: plain CharSequences are copied into a reused char buffer,
+    // text with character styles is drawn from a StaticLayout
+    private int mTextMode = TEXT_MODE_STRING;
+    private ChipTextBuffer mTextBuffer;
+    private Spanned mSpannedSource;
+    private SpannedTextLayout mSpannedText;
+    private StaticLayout mSpannedLayout;
+
+    // Text which is drawn, mText end ellipsized to the max width & max chars
+    private String mDisplayText;
+    private int mMaxWidth = Integer.MAX_VALUE;
+    private int mMaxChars = TextMeasureCache.NO_MAX_CHARS;
+
+    // Width the parent allowed in the last onMeasure pass when the chip did not fit
+    private int mMeasureMaxWidth = Integer.MAX_VALUE;
     private boolean mIsUpperCase = true;
+    private Locale mTextLocale;
     private float mStrokeWidth = 1.0f;
+    private Typeface mTypeface;
+
+    // Checked state, drawn with its own colors
+    private boolean mCheckable;
+    private boolean mChecked;
+    private int mCheckedTextColor;
+    private int mCheckedBackgroundColor;
+    private OnCheckedChangeListener mOnCheckedChangeListener;
+
+    // Desired size reported by the last onMeasure pass
+    private int mMeasuredDesiredWidth = -1;
+    private int mMeasuredDesiredHeight = -1;
 
     private float mCornerRadius;
     private float mInternalPadding;
@@ -54,21 +136,69 @@ public final class TextChip extends View {
 
     private Drawable mForeGroundDrawable;
 
+    // Snapshot of the chip body, drawn instead of the round rect & text when enabled
+    private boolean mSnapshotEnabled;
+    private Bitmap mSnapshot;
+
+    // Frame aligned coalescing of property changes, see setCoalescingEnabled()
+    private boolean mCoalescingEnabled;
+    private int mPendingChanges;
+    private boolean mFrameCallbackPosted;
+    private Choreographer.FrameCallback mFrameCallback;
+
+    // Draw only transition from the previous look, see animateTextSize()
+    private long mTransitionDuration = DEFAULT_TRANSITION_DURATION;
+    private ValueAnimator mTransitionAnimator;
+    private boolean mTransitionRunning;
+    private float mTransitionFraction;
+    private int mTransitionChanges;
+
+    // Look of the chip when the transition started
+    private final RectF mFromRect = new RectF();
+    private float mFromCornerRadius;
+    private int mFromTextColor;
+    private int mFromBackgroundColor;
+    private String mFromText;
+    private float mFromTextWidth;
+    private float mFromTextHeight;
+    private TextPaint mFromTextPaint;
+
+    // Interpolated rect & painters of the running transition, never shared
+    private final RectF mTransitionRect = new RectF();
+    private TextPaint mTransitionTextPaint;
+    private Paint mTransitionBackgroundPaint;
+
+    // Measures the text with the text painter when the shared cache misses
+    private TextMeasureCache.PaintMeasurer mMeasurer;
+
     public TextChip(Context context, String text) {
+        this(context, text, ChipStyle.getDefault(context));
+    }
+
+    public TextChip(Context context, String text, ChipStyle style) {
         super(context);
-        this.mText = text;
+
+        initDefaults(null, style);
+        setText(text);
     }
 
     public TextChip(Context context, AttributeSet attrs) {
         super(context, attrs);
 
-        initDefaults(attrs);
+        initDefaults(attrs, null);
     }
 
     public TextChip(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
 
-        initDefaults(attrs);
+        initDefaults(attrs, null);
+    }
+
+    /**
+     * Notified when the checked state of a chip changes
+     */
+    public interface OnCheckedChangeListener {
+        void onCheckedChanged(TextChip chip, boolean isChecked);
     }
 
     public int getBackgroundColor() {
@@ -77,26 +207,32 @@ public final class TextChip extends View {
 
     public void setBackgroundColor(int backgroundColor) {
         this.mBackgroundColor = backgroundColor;
-        mBackgroundPaint.setColor(backgroundColor);
-        invalidate();
-        requestLayout();
+        editBackgroundPaint().setColor(getDrawnBackgroundColor());
+        onPropertiesChanged(CHANGE_BACKGROUND_COLOR);
     }
 
     public String getText() {
+
+        // Text shown from the char buffer is only turned into a String on request
+        if(mText == null && mTextMode == TEXT_MODE_CHARS){
+            mText = mTextBuffer.getText();
+        }
         return mText;
     }
 
     public void setText(String text) {
-        this.mOriginalText = text;
+        setText((CharSequence) text);
+    }
 
-        if(mIsUpperCase){
-            this.mText = text.toUpperCase().trim();
-        }else{
-            this.mText = mOriginalText.trim();
+    /**
+     * Sets the text without converting it to a String. Plain CharSequences such as an Editable
+     * or a reused StringBuilder are copied into a reused buffer, bold & color spans are kept.
+     */
+    public void setText(CharSequence text) {
+        if(assignText(text)){
+            applyCase();
+            onPropertiesChanged(CHANGE_TEXT);
         }
-        computeBounds();
-        invalidate();
-        requestLayout();
     }
 
     public int getTextColor() {
@@ -105,9 +241,8 @@ public final class TextChip extends View {
 
     public void setTextColor(int textColor) {
         this.mTextColor = textColor;
-        mTextPaint.setColor(textColor);
-        invalidate();
-        requestLayout();
+        editTextPaint().setColor(getDrawnTextColor());
+        onPropertiesChanged(CHANGE_TEXT_COLOR);
     }
 
     public float getTextSize() {
@@ -116,24 +251,76 @@ public final class TextChip extends View {
 
     public void setTextSize(float textSize) {
         this.mTextSize = textSize;
-        mTextPaint.setTextSize(textSize);
-        computeBounds();
-        invalidate();
-        requestLayout();
+        editTextPaint().setTextSize(textSize);
+        onPropertiesChanged(CHANGE_TEXT_SIZE);
     }
 
-    public void setUpperCase(boolean isUpperCase){
-        this.mIsUpperCase = isUpperCase;
+    /**
+     * Blends the background from the current color to backgroundColor, only redraws the chip
+     */
+    public void animateBackgroundColor(int backgroundColor) {
+        beginTransition();
+        this.mBackgroundColor = backgroundColor;
+        editBackgroundPaint().setColor(getDrawnBackgroundColor());
+        startTransition(CHANGE_BACKGROUND_COLOR);
+    }
 
-        if(mIsUpperCase){
-            this.mText = getText().toUpperCase().trim();
-        }else{
-            this.mText = mOriginalText.trim();
+    /**
+     * Blends the text from the current color to textColor, only redraws the chip
+     */
+    public void animateTextColor(int textColor) {
+        beginTransition();
+        this.mTextColor = textColor;
+        editTextPaint().setColor(getDrawnTextColor());
+        startTransition(CHANGE_TEXT_COLOR);
+    }
+
+    /**
+     * Crossfades the current text into text while the background scales to the new bounds.
+     * The text is measured once up front & layout is requested once, when the transition ends.
+     */
+    public void animateText(CharSequence text) {
+        beginTransition();
+        int changes = 0;
+        if(assignText(text)){
+            applyCase();
+            computeBounds();
+            changes = CHANGE_TEXT;
         }
+        startTransition(changes);
+    }
 
+    /**
+     * Scales the chip from its current to its new measured bounds, see {@link #animateText(CharSequence)}
+     */
+    public void animateTextSize(float textSize) {
+        beginTransition();
+        this.mTextSize = textSize;
+        editTextPaint().setTextSize(textSize);
         computeBounds();
-        invalidate();
-        requestLayout();
+        startTransition(CHANGE_TEXT_SIZE);
+    }
+
+    public long getTransitionDuration() {
+        return mTransitionDuration;
+    }
+
+    public void setTransitionDuration(long duration) {
+        this.mTransitionDuration = duration;
+    }
+
+    public boolean isTransitionRunning() {
+        return mTransitionRunning;
+    }
+
+    public void setUpperCase(boolean isUpperCase){
+        if(isUpperCase == mIsUpperCase){
+            return;
+        }
+
+        this.mIsUpperCase = isUpperCase;
+        applyCase();
+        onPropertiesChanged(CHANGE_UPPER_CASE);
     }
 
     public boolean isUpperCase(){
@@ -141,101 +328,936 @@ public final class TextChip extends View {
     }
 
 
+    public Locale getTextLocale(){
+        return mTextLocale;
+    }
+
+    /**
+     * Sets the locale used to upper case the text, defaults to the locale of the resources
+     */
+    public void setTextLocale(Locale locale){
+        if(locale == null){
+            throw new IllegalArgumentException("locale must not be null");
+        }
+        if(locale.equals(mTextLocale)){
+            return;
+        }
+
+        this.mTextLocale = locale;
+        applyCase();
+        onPropertiesChanged(CHANGE_TEXT);
+    }
+
     public float getStrokeWidth(){
         return this.mStrokeWidth;
     }
 
     public void setStrokeWidth(float strokeWidth){
         this.mStrokeWidth = strokeWidth;
+        editTextPaint().setStrokeWidth(mStrokeWidth);
+        onPropertiesChanged(CHANGE_STROKE_WIDTH);
+    }
+
+    public Typeface getTypeface(){
+        return mTypeface;
+    }
+
+    public void setTypeface(Typeface typeface){
+        this.mTypeface = typeface;
+        editTextPaint().setTypeface(typeface);
+        onPropertiesChanged(CHANGE_TYPEFACE);
+    }
+
+    /**
+     * Sets the typeface by family name, either a system family such as "sans-serif-medium"
+     * or a .ttf / .otf file in the assets. Typefaces are loaded once per process.
+     */
+    public void setFontFamily(String fontFamily){
+        setTypeface(ChipTypefaces.get(getContext(), fontFamily));
+    }
+
+    public boolean isCheckable(){
+        return mCheckable;
+    }
+
+    /**
+     * Lets clicks toggle the checked state
+     */
+    public void setCheckable(boolean checkable){
+        if(checkable){
+            setClickable(true);
+        }else if(mCheckable && !hasOnClickListeners()){
+            // Only clear the flag being checkable set
+            setClickable(false);
+        }
+        this.mCheckable = checkable;
+    }
+
+    @Override
+    public boolean isChecked(){
+        return mChecked;
+    }
+
+    @Override
+    public void setChecked(boolean checked){
+        if(checked == mChecked){
+            return;
+        }
+
+        this.mChecked = checked;
+        applyStateColors();
+        refreshDrawableState();
+        onPropertiesChanged(CHANGE_CHECKED);
+
+        if(mOnCheckedChangeListener != null){
+            mOnCheckedChangeListener.onCheckedChanged(this, checked);
+        }
+    }
+
+    @Override
+    public void toggle(){
+        setChecked(!mChecked);
+    }
+
+    public void setOnCheckedChangeListener(OnCheckedChangeListener listener){
+        this.mOnCheckedChangeListener = listener;
+    }
+
+    public int getCheckedTextColor(){
+        return mCheckedTextColor;
+    }
+
+    public void setCheckedTextColor(int checkedTextColor){
+        this.mCheckedTextColor = checkedTextColor;
+        if(mChecked){
+            editTextPaint().setColor(checkedTextColor);
+            onPropertiesChanged(CHANGE_TEXT_COLOR);
+        }
+    }
+
+    public int getCheckedBackgroundColor(){
+        return mCheckedBackgroundColor;
+    }
+
+    public void setCheckedBackgroundColor(int checkedBackgroundColor){
+        this.mCheckedBackgroundColor = checkedBackgroundColor;
+        if(mChecked){
+            editBackgroundPaint().setColor(checkedBackgroundColor);
+            onPropertiesChanged(CHANGE_BACKGROUND_COLOR);
+        }
+    }
+
+    public boolean isSnapshotEnabled(){
+        return mSnapshotEnabled;
+    }
+
+    /**
+     * Renders the chip body once into a bitmap shared through the {@link ChipSnapshotPool}
+     * and draws that on subsequent frames. Only the foreground selector is drawn live.
+     * Useful for chips which rarely change after binding.
+     */
+    public void setSnapshotEnabled(boolean snapshotEnabled){
+        this.mSnapshotEnabled = snapshotEnabled;
+        mSnapshot = null;
+        invalidateChip();
+    }
+
+    public boolean isCoalescingEnabled(){
+        return mCoalescingEnabled;
+    }
+
+    /**
+     * Collapses text & style updates which arrive within one frame into a single bounds
+     * computation, layout request and invalidation, applied right before the next frame.
+     * Useful for chips updated on every keystroke.
+     */
+    public void setCoalescingEnabled(boolean coalescingEnabled){
+        if(coalescingEnabled == mCoalescingEnabled){
+            return;
+        }
+
+        this.mCoalescingEnabled = coalescingEnabled;
+        if(coalescingEnabled){
+            if(mFrameCallback == null){
+                mFrameCallback = new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        mFrameCallbackPosted = false;
+                        flushPendingChanges();
+                    }
+                };
+            }
+        }else{
+            flushPendingChanges();
+        }
+    }
+
+    public int getMaxWidth(){
+        return mMaxWidth;
+    }
+
+    /**
+     * Sets the maximum width of the chip in pixels, longer text is end ellipsized
+     */
+    public void setMaxWidth(int maxWidth){
+        this.mMaxWidth = maxWidth;
+        onPropertiesChanged(CHANGE_MAX_SIZE);
+    }
+
+    public int getMaxChars(){
+        return mMaxChars;
+    }
+
+    /**
+     * Sets the maximum number of characters shown, longer text is end ellipsized
+     */
+    public void setMaxChars(int maxChars){
+        this.mMaxChars = maxChars;
+        onPropertiesChanged(CHANGE_MAX_SIZE);
+    }
+
+    /**
+     * Applies every value of a compiled style at once, with a single bounds computation
+     * and the style's shared painters
+     */
+    public void setChipStyle(ChipStyle style){
+        boolean caseChanged = style.isUpperCase() != mIsUpperCase;
+
+        assignStyle(style);
+        if(caseChanged){
+            applyCase();
+        }
+        onPropertiesChanged(CHANGES_STYLE);
+    }
+
+    /**
+     * Starts a batch of property changes which are applied together by {@link Editor#apply()}
+     * with a single bounds computation and at most one layout request
+     */
+    public Editor edit(){
+        return new Editor();
+    }
+
+    /**
+     * Returns the geometry of the chip's current text, which can be adopted by other chips
+     * with the same style through {@link #setChipLayout(ChipLayout)}
+     */
+    public ChipLayout getChipLayout(){
+        if(mPendingChanges != 0){
+            flushPendingChanges();
+        }
+
+        return new ChipLayout(getOriginalText(), getText(), getDisplayText(), mTextPaint.getTextSize(), mTextPaint.getStrokeWidth(),
+                mTextPaint.getTypeface(), mIsUpperCase, mTextLocale, getTextMaxWidth(), mMaxChars, mInternalPadding, mDefaultHeight,
+                mTextWidth, mTextHeight, mCornerRadius, rectWidth(mTextWidth, mInternalPadding),
+                rectHeight(mTextHeight, mInternalPadding, mDefaultHeight));
+    }
+
+    /**
+     * Shows the text of a precomputed layout without measuring it again. Layouts computed
+     * for a different text size, stroke width, typeface or case fall back to {@link #setText(String)}.
+     */
+    public void setChipLayout(ChipLayout layout){
+
+        if(!layout.matches(mTextPaint, mIsUpperCase, mTextLocale, getTextMaxWidth(), mMaxChars, mInternalPadding, mDefaultHeight)){
+            setText(layout.getOriginalText());
+            return;
+        }
+
+        this.mTextMode = TEXT_MODE_STRING;
+        clearSpannedText();
+        this.mOriginalText = layout.getOriginalText();
+        this.mText = layout.getText();
+        this.mDisplayText = layout.getDisplayText();
+        this.mTextWidth = layout.getTextWidth();
+        this.mTextHeight = layout.getTextHeight();
+        this.mCornerRadius = layout.getCornerRadius();
+        updateRect(layout.getRectWidth(), layout.getRectHeight());
+
+        mSnapshot = null;
+        boolean layoutRequested = onBoundsChanged();
+
+        if(ChipMetrics.isEnabled()){
+            ChipMetrics.recordPropertyChanges(CHANGE_TEXT, layoutRequested);
+        }
+    }
 
-        mTextPaint.setStrokeWidth(mStrokeWidth);
+    /**
+     * Restores the state of a chip created with {@link #TextChip(Context, String)} without
+     * creating new painters or drawables, used by the {@link TextChipPool}
+     */
+    void resetToDefaults(){
 
+        // Drop updates still waiting for a frame
+        if(mFrameCallbackPosted){
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+            mFrameCallbackPosted = false;
+        }
+        mPendingChanges = 0;
+        mCoalescingEnabled = false;
+        cancelTransition();
+        mChecked = false;
+        mOnCheckedChangeListener = null;
+
+        ChipStyleDefaults defaults = ChipStyleDefaults.get(getContext());
+
+        // Back to the default style & its shared painters, private copies are dropped
+        assignStyle(defaults.getStyle());
+        mTextLocale = defaults.locale;
+        mMeasureMaxWidth = Integer.MAX_VALUE;
+        mMeasuredDesiredWidth = -1;
+        mMeasuredDesiredHeight = -1;
+        mSnapshotEnabled = false;
+        mSnapshot = null;
+
+        // View state a previous owner may have changed
+        setOnClickListener(null);
+        setOnLongClickListener(null);
+        // A checkable default style still toggles on click, setOnClickListener() made it clickable
+        setClickable(mCheckable);
+        setLongClickable(false);
+        setPressed(false);
+        setSelected(false);
+        setActivated(false);
+        setAlpha(1f);
+        setTranslationX(0f);
+        setTranslationY(0f);
+        setScaleX(1f);
+        setScaleY(1f);
+        setVisibility(VISIBLE);
+        setPadding(0, 0, 0, 0);
+
+        // The cached drawable state may still hold state_checked from the previous owner
+        refreshDrawableState();
+        mForeGroundDrawable.setState(getDrawableState());
+        mForeGroundDrawable.jumpToCurrentState();
+
+        mTextMode = TEXT_MODE_STRING;
+        clearSpannedText();
+        mOriginalText = TEXT_CHIP;
+        applyCase();
         computeBounds();
-        invalidate();
+
         requestLayout();
+        invalidate();
+    }
+
+    Paint getTextPaint(){
+        return mTextPaint;
+    }
+
+    Layout getSpannedLayout(){
+        return mSpannedLayout;
+    }
+
+    float getInternalPadding(){
+        return mInternalPadding;
+    }
+
+    float getDefaultHeight(){
+        return mDefaultHeight;
+    }
+
+    Drawable getForegroundDrawable(){
+        return mForeGroundDrawable;
     }
 
-    private void initDefaults(AttributeSet attrs){
+    /**
+     * Stores the text in the mode matching its type, returns false when it equals the current text
+     */
+    private boolean assignText(CharSequence text){
+
+        if(SpannedTextLayout.hasCharacterStyles(text)){
+            mTextMode = TEXT_MODE_SPANNED;
+            mSpannedSource = new SpannedString(text);
+            mOriginalText = null;
+            return true;
+        }
+
+        // Typing listeners often hand back the text we already show
+        if((mTextMode == TEXT_MODE_STRING && TextUtils.equals(text, mOriginalText))
+                || (mTextMode == TEXT_MODE_CHARS && mTextBuffer.contentEquals(text))){
+            return false;
+        }
+
+        clearSpannedText();
+        if(text instanceof String){
+            mTextMode = TEXT_MODE_STRING;
+            mOriginalText = (String) text;
+        }else{
+            if(mTextBuffer == null){
+                mTextBuffer = new ChipTextBuffer();
+            }
+            mTextBuffer.set(text);
+            mTextMode = TEXT_MODE_CHARS;
+            mOriginalText = null;
+        }
+        return true;
+    }
+
+    private void clearSpannedText(){
+        mSpannedSource = null;
+        mSpannedText = null;
+        mSpannedLayout = null;
+    }
+
+    private void applyCase(){
+        switch(mTextMode){
+            case TEXT_MODE_SPANNED:
+                mSpannedText = SpannedTextLayout.create(mSpannedSource, mIsUpperCase, mTextLocale);
+                mText = mSpannedText.getText().toString();
+                break;
+            case TEXT_MODE_CHARS:
+                if(mTextBuffer.transform(mIsUpperCase, mTextLocale)){
+                    mText = null;
+                    break;
+                }
+
+                // Locale specific case mapping needs a String
+                mOriginalText = mTextBuffer.getSourceText();
+                mTextMode = TEXT_MODE_STRING;
+                // fall through
+            default:
+                mText = transformCase(mOriginalText, mIsUpperCase, mTextLocale);
+                break;
+        }
+    }
+
+    private String getOriginalText(){
+        switch(mTextMode){
+            case TEXT_MODE_CHARS:
+                return mTextBuffer.getSourceText();
+            case TEXT_MODE_SPANNED:
+                return mSpannedSource.toString();
+            default:
+                return mOriginalText;
+        }
+    }
+
+    private String getDisplayText(){
+        switch(mTextMode){
+            case TEXT_MODE_CHARS:
+                return mTextBuffer.getDisplayText();
+            case TEXT_MODE_SPANNED:
+                return mSpannedLayout.getText().toString();
+            default:
+                return mDisplayText;
+        }
+    }
+
+    /**
+     * Returns the trimmed text in the requested case, shared through the {@link CaseTransformCache}
+     */
+    static String transformCase(String text, boolean isUpperCase, Locale locale){
+        return CaseTransformCache.getInstance().transform(text, isUpperCase, locale);
+    }
+
+    private void onPropertiesChanged(int changes){
+
+        if(mCoalescingEnabled){
+            mPendingChanges |= changes;
+            if(!mFrameCallbackPosted){
+                Choreographer.getInstance().postFrameCallback(mFrameCallback);
+                mFrameCallbackPosted = true;
+            }
+            return;
+        }
+
+        applyChanges(changes);
+    }
+
+    /**
+     * Applies the changes collected since the last frame, called early when the chip is
+     * measured or drawn before the frame callback runs
+     */
+    private void flushPendingChanges(){
+        if(mFrameCallbackPosted){
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+            mFrameCallbackPosted = false;
+        }
+
+        int changes = mPendingChanges;
+        mPendingChanges = 0;
+        if(changes != 0){
+            applyChanges(changes);
+        }
+    }
+
+    private void applyChanges(int changes){
+
+        mSnapshot = null;
+
+        boolean layoutRequested = false;
+
+        // Only changes that affect the measured size need new bounds and a layout pass
+        if((changes & CHANGES_AFFECTING_BOUNDS) != 0){
+            computeBounds();
+            layoutRequested = onBoundsChanged();
+        }else if(changes != 0){
+            invalidateChanges(changes);
+        }
+
+        if(ChipMetrics.isEnabled()){
+            ChipMetrics.recordPropertyChanges(changes, layoutRequested);
+        }
+    }
+
+    /**
+     * Invalidates only what the paint changes touch, the text for a text color change
+     * and the background rect otherwise
+     */
+    private void invalidateChanges(int changes){
+        if(changes == CHANGE_TEXT_COLOR){
+            mDirtyRect.set(mTextBounds);
+        }else{
+            mDirtyRect.set((int) Math.floor(mRoundedRect.left), (int) Math.floor(mRoundedRect.top),
+                    (int) Math.ceil(mRoundedRect.right), (int) Math.ceil(mRoundedRect.bottom));
+            mDirtyRect.union(mTextBounds);
+        }
+        invalidateRect(mDirtyRect);
+    }
+
+    private void invalidateRect(Rect dirty){
+        if(ChipMetrics.isEnabled()){
+            ChipMetrics.recordInvalidation(this, dirty);
+        }
+        invalidate(dirty);
+    }
+
+    private void invalidateChip(){
+        if(ChipMetrics.isEnabled()){
+            mDirtyRect.set(0, 0, getWidth(), getHeight());
+            ChipMetrics.recordInvalidation(this, mDirtyRect);
+        }
+        invalidate();
+    }
+
+    private boolean onBoundsChanged(){
+        invalidateChip();
+
+        // Skip the layout pass when the new bounds measure to the same size
+        if(getDesiredWidth() != mMeasuredDesiredWidth || getDesiredHeight() != mMeasuredDesiredHeight){
+            requestLayout();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Captures the look the transition starts from. A running transition is cut to its end
+     * look without a layout pass, its bounds change is carried over to the next one.
+     */
+    private void beginTransition(){
+        if(mPendingChanges != 0){
+            flushPendingChanges();
+        }
+
+        if(mTransitionRunning){
+            mTransitionRunning = false;
+            mTransitionAnimator.cancel();
+        }
+
+        mFromRect.set(mRoundedRect);
+        mFromCornerRadius = mCornerRadius;
+        mFromTextColor = getDrawnTextColor();
+        mFromBackgroundColor = getDrawnBackgroundColor();
+        mFromText = getDisplayText();
+        mFromTextWidth = mTextWidth;
+        mFromTextHeight = mTextHeight;
+
+        if(mFromTextPaint == null){
+            mFromTextPaint = new TextPaint(mTextPaint);
+        }else{
+            mFromTextPaint.set(mTextPaint);
+        }
+    }
+
+    private void startTransition(int changes){
+        mTransitionChanges |= changes;
+        if(mTransitionChanges == 0){
+            return;
+        }
+
+        if(mTransitionAnimator == null){
+            mTransitionAnimator = ValueAnimator.ofFloat(0f, 1f);
+            mTransitionAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    if(mTransitionRunning){
+                        setTransitionFraction(animation.getAnimatedFraction());
+                    }
+                }
+            });
+        }
+
+        mSnapshot = null;
+        mTransitionRunning = true;
+        mTransitionFraction = 0f;
+        mTransitionAnimator.setDuration(mTransitionDuration);
+        mTransitionAnimator.start();
+        invalidateChip();
+    }
+
+    /**
+     * Moves the transition to fraction, ends it at 1
+     */
+    void setTransitionFraction(float fraction){
+        mTransitionFraction = fraction;
+        if(fraction >= 1f){
+            finishTransition();
+        }else{
+            invalidateChip();
+        }
+    }
+
+    /**
+     * Jumps to the end of the running transition
+     */
+    void endTransition(){
+        if(mTransitionRunning){
+            mTransitionAnimator.cancel();
+            finishTransition();
+        }
+    }
+
+    private void finishTransition(){
+        mTransitionRunning = false;
+        mFromText = null;
+
+        int changes = mTransitionChanges;
+        mTransitionChanges = 0;
+
+        // The only layout pass of the transition, skipped when the size did not change
+        boolean layoutRequested = false;
+        if((changes & CHANGES_AFFECTING_BOUNDS) != 0){
+            layoutRequested = onBoundsChanged();
+        }else{
+            invalidateChip();
+        }
+
+        if(ChipMetrics.isEnabled()){
+            ChipMetrics.recordPropertyChanges(changes, layoutRequested);
+        }
+    }
+
+    /**
+     * Drops the running transition without drawing its end look, used when the chip is reset
+     */
+    private void cancelTransition(){
+        if(mTransitionRunning){
+            mTransitionRunning = false;
+            mTransitionAnimator.cancel();
+        }
+        mTransitionChanges = 0;
+        mFromText = null;
+    }
+
+    static int blendColors(int from, int to, float fraction){
+        int a = (int) (Color.alpha(from) + (Color.alpha(to) - Color.alpha(from)) * fraction);
+        int r = (int) (Color.red(from) + (Color.red(to) - Color.red(from)) * fraction);
+        int g = (int) (Color.green(from) + (Color.green(to) - Color.green(from)) * fraction);
+        int b = (int) (Color.blue(from) + (Color.blue(to) - Color.blue(from)) * fraction);
+        return Color.argb(a, r, g, b);
+    }
+
+    private int getDesiredWidth(){
+        float horizontalPadding = getPaddingLeft() + getPaddingRight();
+        return (int) mRoundedRect.width() + (int) horizontalPadding;
+    }
+
+    private int getDesiredHeight(){
+        float verticalPadding = getPaddingBottom() + getPaddingTop();
+        return (int) (mRoundedRect.height() + verticalPadding);
+    }
+
+    private void initDefaults(AttributeSet attrs, ChipStyle style){
+
+        String text = TEXT_CHIP;
+
+        // Resources & dimensions resolved once per theme
+        ChipStyleDefaults defaults = ChipStyleDefaults.get(getContext());
 
         if(attrs != null) {
 
             TypedArray typedArray = getContext().obtainStyledAttributes(attrs, R.styleable.TextChip);
 
-            mBackgroundColor = typedArray.getColor(R.styleable.TextChip_tc_backgroundColor, Color.parseColor(DEFAULT_BG_COLOR));
-            mTextColor = typedArray.getColor(R.styleable.TextChip_tc_textColor, getResources().getColor(R.color.primary_black));
-            mTextSize = typedArray.getDimension(R.styleable.TextChip_tc_textSize, DeviceDimensionsHelper.convertDpToPixel(DEFAULT_TEXT_SIZE, getContext()));
-            mStrokeWidth = typedArray.getDimension(R.styleable.TextChip_tc_strokeWidth, DeviceDimensionsHelper.convertDpToPixel(DEFAULT_STROKE_WIDTH, getContext()));
-            mIsUpperCase = typedArray.getBoolean(R.styleable.TextChip_tc_upperCase, true);
-            String text = typedArray.hasValue(R.styleable.TextChip_tc_text) ? typedArray.getString(R.styleable.TextChip_tc_text) : TEXT_CHIP;
-
-            if (mIsUpperCase) {
-                mText = text.toUpperCase();
-            } else {
-                mText = text;
+            // Compiled once per theme & style resource
+            int styleRes = typedArray.getResourceId(R.styleable.TextChip_tc_chipStyle, 0);
+            style = styleRes != 0 ? ChipStyle.fromResource(getContext(), styleRes) : defaults.getStyle();
+
+            // Attributes set on the chip itself win over its style
+            if (hasStyleAttributes(typedArray)) {
+                style = new ChipStyle.Builder(style).setAttributes(getContext(), typedArray).build();
+            }
+            if (typedArray.hasValue(R.styleable.TextChip_tc_text)) {
+                text = typedArray.getString(R.styleable.TextChip_tc_text);
             }
+            mChecked = typedArray.getBoolean(R.styleable.TextChip_tc_checked, false);
 
             typedArray.recycle();
         }
 
-        mForeGroundDrawable = getResources().getDrawable(R.drawable.chip_selector);
-        mForeGroundDrawable.setCallback(this);
+        assignStyle(style);
+        mTextLocale = defaults.locale;
 
-        mDefaultHeight = DeviceDimensionsHelper.convertDpToPixel(HEIGHT, getContext());
+        mOriginalText = text;
+        applyCase();
 
-        // Compute the internal padding
-        mInternalPadding = DeviceDimensionsHelper.convertDpToPixel(2 * PADDING, getContext());
+        mForeGroundDrawable = defaults.newForegroundDrawable();
+        mForeGroundDrawable.setCallback(this);
 
-        initPainters();
+        mDefaultHeight = defaults.defaultHeight;
+        mInternalPadding = defaults.internalPadding;
 
         computeBounds();
     }
 
-    private void initPainters(){
+    private static boolean hasStyleAttributes(TypedArray typedArray){
+        for(int i = 0; i < typedArray.getIndexCount(); i++){
+            int attr = typedArray.getIndex(i);
+            if(attr != R.styleable.TextChip_tc_text && attr != R.styleable.TextChip_tc_chipStyle
+                    && attr != R.styleable.TextChip_tc_checked){
+                return true;
+            }
+        }
+        return false;
+    }
 
-        mTextPaint = new Paint();
-        mTextPaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        mTextPaint.setColor(mTextColor);
-        mTextPaint.setTextSize(mTextSize);
-        mTextPaint.setStrokeWidth(mStrokeWidth);
+    /**
+     * Takes over the values of a style along with the painters it shares with other chips
+     */
+    private void assignStyle(ChipStyle style){
+
+        mBackgroundColor = style.getBackgroundColor();
+        mTextColor = style.getTextColor();
+        mTextSize = style.getTextSize();
+        mStrokeWidth = style.getStrokeWidth();
+        mTypeface = style.getTypeface();
+        mIsUpperCase = style.isUpperCase();
+        mMaxWidth = style.getMaxWidth();
+        mMaxChars = style.getMaxChars();
+        mCheckedTextColor = style.getCheckedTextColor();
+        mCheckedBackgroundColor = style.getCheckedBackgroundColor();
+        setCheckable(style.isCheckable());
+
+        mTextPaint = style.textPaint;
+        mBackgroundPaint = style.backgroundPaint;
+        mOwnsTextPaint = false;
+        mOwnsBackgroundPaint = false;
+
+        if(mMeasurer == null){
+            mMeasurer = new TextMeasureCache.PaintMeasurer(mTextPaint);
+        }else{
+            mMeasurer.setPaint(mTextPaint);
+        }
 
-        mBackgroundPaint = new Paint();
-        mBackgroundPaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        mBackgroundPaint.setColor(mBackgroundColor);
+        if(mChecked){
+            applyStateColors();
+        }
+    }
+
+    private int getDrawnTextColor(){
+        return mChecked ? mCheckedTextColor : mTextColor;
+    }
+
+    private int getDrawnBackgroundColor(){
+        return mChecked ? mCheckedBackgroundColor : mBackgroundColor;
+    }
+
+    /**
+     * Points the painters at the colors of the checked state, shared painters are
+     * swapped for the registry's painters of those colors rather than copied
+     */
+    private void applyStateColors(){
+
+        ChipPaintRegistry registry = ChipPaintRegistry.getInstance();
+
+        int textColor = getDrawnTextColor();
+        if(mTextPaint.getColor() != textColor){
+            if(mOwnsTextPaint){
+                mTextPaint.setColor(textColor);
+            }else{
+                swapTextPaint(registry.obtainTextPaint(textColor, mTextSize, mStrokeWidth, mTypeface));
+            }
+        }
+
+        int backgroundColor = getDrawnBackgroundColor();
+        if(mBackgroundPaint.getColor() != backgroundColor){
+            if(mOwnsBackgroundPaint){
+                mBackgroundPaint.setColor(backgroundColor);
+            }else{
+                mBackgroundPaint = registry.obtainBackgroundPaint(backgroundColor);
+            }
+        }
+    }
+
+    /**
+     * Returns a text painter this chip may modify, copying the shared one on the first change
+     */
+    private TextPaint editTextPaint(){
+        if(!mOwnsTextPaint){
+            swapTextPaint(new TextPaint(mTextPaint));
+            mOwnsTextPaint = true;
+        }
+        return mTextPaint;
+    }
+
+    /**
+     * Replaces the text painter, a spanned layout draws with the painter it was built with
+     * so it is rebuilt for the new one
+     */
+    private void swapTextPaint(TextPaint textPaint){
+        mTextPaint = textPaint;
+        mMeasurer.setPaint(textPaint);
+
+        if(mTextMode == TEXT_MODE_SPANNED && mSpannedLayout != null){
+            mSpannedLayout = mSpannedText.obtain(textPaint, getTextMaxWidth(), mMaxChars);
+        }
+    }
+
+    private Paint editBackgroundPaint(){
+        if(!mOwnsBackgroundPaint){
+            mBackgroundPaint = new Paint(mBackgroundPaint);
+            mOwnsBackgroundPaint = true;
+        }
+        return mBackgroundPaint;
     }
 
     private void computeBounds(){
 
-        // Compute height & width
-        mTextHeight = mTextPaint.getTextSize() - (mTextPaint.ascent() + mTextPaint.descent());
-        mTextWidth = mTextPaint.measureText(mText);
+        long start = ChipMetrics.isEnabled() ? ChipMetrics.beginStage(ChipMetrics.STAGE_COMPUTE_BOUNDS) : 0L;
+
+        float maxWidth = getTextMaxWidth();
+
+        if(mTextMode == TEXT_MODE_CHARS){
+            // Buffer text changes with every update, measure it in place instead of caching it
+            mTextWidth = mTextBuffer.measure(mTextPaint, maxWidth, mMaxChars);
+            mTextHeight = mMeasurer.measureHeight();
+            mDisplayText = null;
+        }else if(mTextMode == TEXT_MODE_SPANNED){
+            mSpannedLayout = mSpannedText.obtain(mTextPaint, maxWidth, mMaxChars);
+            mTextWidth = mSpannedLayout.getLineWidth(0);
+            mTextHeight = mMeasurer.measureHeight();
+            mDisplayText = null;
+        }else{
+            // Compute height & width, re-using measurements of text we have seen before
+            TextMeasureCache.Measurement measurement = TextMeasureCache.getInstance().obtain(mText,
+                    mTextPaint.getTextSize(), mTextPaint.getStrokeWidth(), mTextPaint.getTypeface(), mIsUpperCase,
+                    maxWidth, mMaxChars, mMeasurer);
+            mTextHeight = measurement.height;
+            mTextWidth = measurement.width;
+            mDisplayText = measurement.text;
+        }
 
         // Compute the corner radius
-        mCornerRadius = DeviceDimensionsHelper.convertDpToPixel(mTextHeight / CHIP_CORNER_RADIUS, getContext());
+        mCornerRadius = cornerRadius(mTextHeight);
+
+        updateRect(rectWidth(mTextWidth, mInternalPadding), rectHeight(mTextHeight, mInternalPadding, mDefaultHeight));
+
+        // Started stages are always ended, even when metrics were switched off meanwhile
+        if(start != 0L){
+            ChipMetrics.endStage(ChipMetrics.STAGE_COMPUTE_BOUNDS, start);
+        }
+    }
+
+    /**
+     * Returns the width available to the text within the max width & the parent's constraint
+     */
+    float getTextMaxWidth(){
+        int maxWidth = Math.min(mMaxWidth, mMeasureMaxWidth);
+        if(maxWidth == Integer.MAX_VALUE){
+            return TextMeasureCache.NO_MAX_WIDTH;
+        }
 
-        int rectWidth = (int) (mTextWidth + (2f * mInternalPadding));
-        int rectHeight = (int) Math.max(mDefaultHeight, mTextHeight + mInternalPadding);
+        // The background rect is offset by the paddings, see updateRect()
+        int horizontalPadding = getPaddingLeft() + getPaddingRight() + (getPaddingRight() - getPaddingLeft());
+        return Math.max(0f, maxWidth - horizontalPadding - (2f * mInternalPadding));
+    }
 
-        // Compute rect width as textWidth + (rectPadding)
-        Rect backgroundRect = new Rect(0, 0, rectWidth, rectHeight);
+    private void updateRect(int rectWidth, int rectHeight){
 
         int paddingLeft = getPaddingLeft();
         int paddingRight = getPaddingRight();
         int paddingBottom = getPaddingBottom();
         int paddingTop = getPaddingTop();
 
-        mRoundedRect = new RectF(backgroundRect.left + paddingLeft, backgroundRect.top + paddingTop,
-                backgroundRect.right + paddingRight, backgroundRect.bottom + paddingBottom);
+        mRoundedRect.set(paddingLeft, paddingTop, rectWidth + paddingRight, rectHeight + paddingBottom);
+
+        // The foreground follows the background, also when the bounds change after the first layout
+        mForeGroundDrawable.setBounds((int) mRoundedRect.left, (int) mRoundedRect.top,
+                (int) mRoundedRect.right, (int) mRoundedRect.bottom);
+
+        computeTextOrigin(getWidth(), getHeight());
+    }
+
+    // Text height is already in pixels, all chip geometry is computed in pixels
+    static float cornerRadius(float textHeight){
+        return textHeight / CHIP_CORNER_RADIUS;
+    }
+
+    // Compute rect width as textWidth + (rectPadding)
+    static int rectWidth(float textWidth, float internalPadding){
+        return (int) (textWidth + (2f * internalPadding));
+    }
+
+    static int rectHeight(float textHeight, float internalPadding, float defaultHeight){
+        return (int) Math.max(defaultHeight, textHeight + internalPadding);
+    }
+
+    private void computeTextOrigin(int width, int height){
 
+        // Text is drawn in the middle of the View
+        int middleX = width / 2;
+        int middleY = height / 2;
 
+        mTextX = middleX - (mTextWidth / 2f);
+        mTextY = middleY + (mTextHeight / 4f);
 
+        // Outset by the stroke & a pixel of anti aliasing
+        float outset = (mTextPaint.getStrokeWidth() / 2f) + 1f;
+        float top;
+        float bottom;
+        if(mTextMode == TEXT_MODE_SPANNED && mSpannedLayout != null){
+            // Size spans may draw past the base painter, the layout's line covers every glyph
+            float lineOffset = mTextY - mSpannedLayout.getLineBaseline(0);
+            top = lineOffset + mSpannedLayout.getLineTop(0);
+            bottom = lineOffset + mSpannedLayout.getLineBottom(0);
+        }else{
+            top = mTextY + mTextPaint.ascent();
+            bottom = mTextY + mTextPaint.descent();
+        }
+        mTextBounds.set((int) Math.floor(mTextX - outset), (int) Math.floor(top - outset),
+                (int) Math.ceil(mTextX + mTextWidth + outset), (int) Math.ceil(bottom + outset));
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        int middleX = getWidth() / 2;
-        int middleY = getHeight() / 2;
+        long start = ChipMetrics.isEnabled() ? ChipMetrics.beginStage(ChipMetrics.STAGE_DRAW) : 0L;
+
+        if(mPendingChanges != 0){
+            flushPendingChanges();
+        }
+
+        // Transitions draw every frame from live values, snapshots are keyed by the String text
+        if(mTransitionRunning){
+            drawTransition(canvas);
+        }else if(mSnapshotEnabled && mTextMode == TEXT_MODE_STRING && obtainSnapshot()){
+            canvas.drawBitmap(mSnapshot, 0, 0, null);
+        }else{
+            drawBody(canvas);
+        }
+
+        mForeGroundDrawable.draw(canvas);
+
+        // Started stages are always ended, even when metrics were switched off meanwhile
+        if(start != 0L){
+            ChipMetrics.endStage(ChipMetrics.STAGE_DRAW, start);
+        }
+    }
+
+    private void drawBody(Canvas canvas){
 
         // Paint the chip background
         // Rect, x radius, y radius, paint
@@ -243,30 +1265,156 @@ public final class TextChip extends View {
 
         // Paint the text in the middle of the View
         // text, x, y, paint
-        float textX = middleX - (mTextWidth / 2f);
-        float textY = middleY + (mTextHeight / 4f);
-        canvas.drawText(mText, textX, textY, mTextPaint);
+        drawText(canvas, mTextX, mTextY, mTextPaint);
+    }
 
-        mForeGroundDrawable.draw(canvas);
+    private void drawText(Canvas canvas, float x, float y, TextPaint paint){
+        if(mTextMode == TEXT_MODE_CHARS){
+            mTextBuffer.draw(canvas, x, y, paint);
+        }else if(mTextMode == TEXT_MODE_SPANNED){
+            // The layout draws from the top of the line with its own painter, y is the baseline.
+            // Its painter takes the given color while drawing so transitions blend spanned text too
+            TextPaint layoutPaint = mSpannedLayout.getPaint();
+            int layoutColor = layoutPaint.getColor();
+            layoutPaint.setColor(paint.getColor());
+
+            int saveCount = canvas.save();
+            canvas.translate(x, y - mSpannedLayout.getLineBaseline(0));
+            mSpannedLayout.draw(canvas);
+            canvas.restoreToCount(saveCount);
+
+            layoutPaint.setColor(layoutColor);
+        }else{
+            canvas.drawText(mDisplayText, x, y, paint);
+        }
+    }
+
+    /**
+     * Draws a frame of the running transition, nothing is measured: the background moves from
+     * the old to the new rect, colors blend & a changed text crossfades, each text scaled
+     * from the rect it was measured for
+     */
+    private void drawTransition(Canvas canvas){
+        float fraction = mTransitionFraction;
+
+        mTransitionRect.set(lerp(mFromRect.left, mRoundedRect.left, fraction),
+                lerp(mFromRect.top, mRoundedRect.top, fraction),
+                lerp(mFromRect.right, mRoundedRect.right, fraction),
+                lerp(mFromRect.bottom, mRoundedRect.bottom, fraction));
+        float cornerRadius = lerp(mFromCornerRadius, mCornerRadius, fraction);
+
+        if(mTransitionBackgroundPaint == null){
+            mTransitionBackgroundPaint = new Paint(mBackgroundPaint);
+        }else{
+            mTransitionBackgroundPaint.set(mBackgroundPaint);
+        }
+        mTransitionBackgroundPaint.setColor(blendColors(mFromBackgroundColor, getDrawnBackgroundColor(), fraction));
+        canvas.drawRoundRect(mTransitionRect, cornerRadius, cornerRadius, mTransitionBackgroundPaint);
+
+        if(mTransitionTextPaint == null){
+            mTransitionTextPaint = new TextPaint(mTextPaint);
+        }else{
+            mTransitionTextPaint.set(mTextPaint);
+        }
+        int textColor = blendColors(mFromTextColor, getDrawnTextColor(), fraction);
+        mTransitionTextPaint.setColor(textColor);
+
+        // Same text in the same bounds, only the color changes
+        if((mTransitionChanges & CHANGES_AFFECTING_BOUNDS) == 0){
+            drawText(canvas, mTextX, mTextY, mTransitionTextPaint);
+            return;
+        }
+
+        // Previous text fades out
+        mFromTextPaint.setColor(textColor);
+        mFromTextPaint.setAlpha((int) (Color.alpha(textColor) * (1f - fraction)));
+        int saveCount = canvas.save();
+        mapRect(canvas, mFromRect, mTransitionRect);
+        canvas.drawText(mFromText, mFromRect.centerX() - (mFromTextWidth / 2f),
+                mFromRect.centerY() + (mFromTextHeight / 4f), mFromTextPaint);
+        canvas.restoreToCount(saveCount);
+
+        // New text fades in, spans keep their own colors so the layer carries the alpha of spanned text
+        if(mTextMode == TEXT_MODE_SPANNED){
+            saveCount = canvas.saveLayerAlpha(mTransitionRect, (int) (255 * fraction), Canvas.ALL_SAVE_FLAG);
+        }else{
+            mTransitionTextPaint.setAlpha((int) (Color.alpha(textColor) * fraction));
+            saveCount = canvas.save();
+        }
+        mapRect(canvas, mRoundedRect, mTransitionRect);
+        drawText(canvas, mRoundedRect.centerX() - (mTextWidth / 2f),
+                mRoundedRect.centerY() + (mTextHeight / 4f), mTransitionTextPaint);
+        canvas.restoreToCount(saveCount);
+    }
+
+    // Scales & translates the canvas so that from is drawn over to
+    private static void mapRect(Canvas canvas, RectF from, RectF to){
+        if(from.width() <= 0f || from.height() <= 0f){
+            return;
+        }
+        canvas.translate(to.left, to.top);
+        canvas.scale(to.width() / from.width(), to.height() / from.height());
+        canvas.translate(-from.left, -from.top);
+    }
+
+    private static float lerp(float from, float to, float fraction){
+        return from + ((to - from) * fraction);
+    }
+
+    private boolean obtainSnapshot(){
+
+        if(mSnapshot != null){
+            return true;
+        }
+
+        int width = getWidth();
+        int height = getHeight();
+        if(width <= 0 || height <= 0){
+            return false;
+        }
+
+        ChipSnapshotPool pool = ChipSnapshotPool.getInstance();
+        ChipSnapshotPool.Key key = new ChipSnapshotPool.Key(mDisplayText, getDrawnTextColor(), getDrawnBackgroundColor(),
+                mTextPaint.getTextSize(), mTextPaint.getStrokeWidth(), mTextPaint.getTypeface(), width, height,
+                mRoundedRect.left, mRoundedRect.top, mRoundedRect.right, mRoundedRect.bottom,
+                mCornerRadius, mTextX, mTextY);
+
+        Bitmap snapshot = pool.get(key);
+        if(snapshot == null){
+            snapshot = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            drawBody(new Canvas(snapshot));
+            pool.put(key, snapshot);
+        }
+
+        mSnapshot = snapshot;
+        return true;
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
-        // Compute height
-        float verticalPadding = getPaddingBottom() + getPaddingTop();
-        int desiredHeight = (int) (mRoundedRect.height() + verticalPadding);
+        long start = ChipMetrics.isEnabled() ? ChipMetrics.beginStage(ChipMetrics.STAGE_MEASURE) : 0L;
 
-        // compute width
-        float horizontalPadding = getPaddingLeft() + getPaddingRight();
-        int desiredWidth = (int) mRoundedRect.width() + (int) horizontalPadding;
+        if(mPendingChanges != 0){
+            flushPendingChanges();
+        }
 
         int widthMode = MeasureSpec.getMode(widthMeasureSpec);
         int widthSize = MeasureSpec.getSize(widthMeasureSpec);
         int heightMode = MeasureSpec.getMode(heightMeasureSpec);
         int heightSize = MeasureSpec.getSize(heightMeasureSpec);
 
+        // Ellipsize the text when the chip does not fit in the width we are given
+        fitToWidth(widthMode == MeasureSpec.UNSPECIFIED ? Integer.MAX_VALUE : widthSize);
+
+        // Compute height & width
+        int desiredHeight = getDesiredHeight();
+        int desiredWidth = getDesiredWidth();
+
+        mMeasuredDesiredWidth = desiredWidth;
+        mMeasuredDesiredHeight = desiredHeight;
+
         int width;
         int height;
 
@@ -294,20 +1442,84 @@ public final class TextChip extends View {
             height = desiredHeight;
         }
         setMeasuredDimension(width, height);
+
+        // Started stages are always ended, even when metrics were switched off meanwhile
+        if(start != 0L){
+            ChipMetrics.endStage(ChipMetrics.STAGE_MEASURE, start);
+        }
+    }
+
+    private void fitToWidth(int availableWidth){
+
+        // Measured once, the truncating path stops at the narrower of the max width & the parent's
+        // constraint. Nothing to do when the width left for the text is unchanged.
+        float textMaxWidth = getTextMaxWidth();
+        mMeasureMaxWidth = availableWidth;
+        if(getTextMaxWidth() != textMaxWidth){
+            computeBounds();
+            mSnapshot = null;
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        // Do not keep the chip referenced from the Choreographer or a running animator
+        flushPendingChanges();
+        endTransition();
+    }
+
+    @Override
+    protected int[] onCreateDrawableState(int extraSpace) {
+        int[] state = super.onCreateDrawableState(extraSpace + 1);
+        if(mChecked){
+            mergeDrawableStates(state, CHECKED_STATE_SET);
+        }
+        return state;
+    }
+
+    @Override
+    public boolean performClick() {
+        if(mCheckable){
+            toggle();
+        }
+        return super.performClick();
     }
 
     @Override
     protected void drawableStateChanged() {
         super.drawableStateChanged();
-        mForeGroundDrawable.setState(getDrawableState());
 
-        invalidate();
+        // Only the foreground depends on the state
+        if(mForeGroundDrawable.setState(getDrawableState())){
+            invalidateDrawable(mForeGroundDrawable);
+        }
+    }
+
+    @Override
+    protected boolean verifyDrawable(Drawable who) {
+        return who == mForeGroundDrawable || super.verifyDrawable(who);
+    }
+
+    @Override
+    public void invalidateDrawable(Drawable drawable) {
+        if(drawable != mForeGroundDrawable){
+            super.invalidateDrawable(drawable);
+            return;
+        }
+
+        // Ripple frames redraw the area of the foreground only
+        mDirtyRect.set(drawable.getDirtyBounds());
+        mDirtyRect.offset(getScrollX(), getScrollY());
+        invalidateRect(mDirtyRect);
     }
 
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-        mForeGroundDrawable.setBounds((int) mRoundedRect.left,(int) mRoundedRect.top,(int) mRoundedRect.right,(int) mRoundedRect.bottom);
+        computeTextOrigin(w, h);
+        mSnapshot = null;
     }
 
     @SuppressWarnings("NewApi")
@@ -318,4 +1530,127 @@ public final class TextChip extends View {
             mForeGroundDrawable.setHotspot(x,y);
         }
     }
+
+    /**
+     * Collects property changes for a TextChip and applies them in one pass. An editor is
+     * empty again after {@link #apply()}, so it can be kept and reused for later batches.
+     */
+    public final class Editor {
+
+        private int mChanges;
+
+        private ChipStyle mPendingStyle;
+        private CharSequence mPendingText;
+        private int mPendingTextColor;
+        private float mPendingTextSize;
+        private int mPendingBackgroundColor;
+        private boolean mPendingUpperCase;
+        private float mPendingStrokeWidth;
+        private Typeface mPendingTypeface;
+
+        private Editor() {
+        }
+
+        /**
+         * Applies the style before the other changes of the batch, which override its values
+         */
+        public Editor setChipStyle(ChipStyle style) {
+            this.mPendingStyle = style;
+            return this;
+        }
+
+        public Editor setText(String text) {
+            return setText((CharSequence) text);
+        }
+
+        public Editor setText(CharSequence text) {
+            this.mPendingText = text;
+            mChanges |= CHANGE_TEXT;
+            return this;
+        }
+
+        public Editor setTextColor(int textColor) {
+            this.mPendingTextColor = textColor;
+            mChanges |= CHANGE_TEXT_COLOR;
+            return this;
+        }
+
+        public Editor setTextSize(float textSize) {
+            this.mPendingTextSize = textSize;
+            mChanges |= CHANGE_TEXT_SIZE;
+            return this;
+        }
+
+        public Editor setBackgroundColor(int backgroundColor) {
+            this.mPendingBackgroundColor = backgroundColor;
+            mChanges |= CHANGE_BACKGROUND_COLOR;
+            return this;
+        }
+
+        public Editor setUpperCase(boolean isUpperCase) {
+            this.mPendingUpperCase = isUpperCase;
+            mChanges |= CHANGE_UPPER_CASE;
+            return this;
+        }
+
+        public Editor setStrokeWidth(float strokeWidth) {
+            this.mPendingStrokeWidth = strokeWidth;
+            mChanges |= CHANGE_STROKE_WIDTH;
+            return this;
+        }
+
+        public Editor setTypeface(Typeface typeface) {
+            this.mPendingTypeface = typeface;
+            mChanges |= CHANGE_TYPEFACE;
+            return this;
+        }
+
+        /**
+         * Applies all pending changes to the chip
+         */
+        public void apply() {
+            int changes = mChanges;
+            mChanges = 0;
+
+            ChipStyle style = mPendingStyle;
+            mPendingStyle = null;
+            if (style != null) {
+                assignStyle(style);
+            }
+
+            if ((changes & CHANGE_UPPER_CASE) != 0) {
+                mIsUpperCase = mPendingUpperCase;
+            }
+            if ((changes & CHANGE_TEXT) != 0 && !assignText(mPendingText)) {
+                changes &= ~CHANGE_TEXT;
+            }
+            mPendingText = null;
+            if (style != null || (changes & (CHANGE_TEXT | CHANGE_UPPER_CASE)) != 0) {
+                applyCase();
+            }
+            if ((changes & CHANGE_TEXT_COLOR) != 0) {
+                mTextColor = mPendingTextColor;
+                editTextPaint().setColor(getDrawnTextColor());
+            }
+            if ((changes & CHANGE_TEXT_SIZE) != 0) {
+                mTextSize = mPendingTextSize;
+                editTextPaint().setTextSize(mTextSize);
+            }
+            if ((changes & CHANGE_BACKGROUND_COLOR) != 0) {
+                mBackgroundColor = mPendingBackgroundColor;
+                editBackgroundPaint().setColor(getDrawnBackgroundColor());
+            }
+            if ((changes & CHANGE_STROKE_WIDTH) != 0) {
+                mStrokeWidth = mPendingStrokeWidth;
+                editTextPaint().setStrokeWidth(mStrokeWidth);
+            }
+            if ((changes & CHANGE_TYPEFACE) != 0) {
+                mTypeface = mPendingTypeface;
+                mPendingTypeface = null;
+                editTextPaint().setTypeface(mTypeface);
+            }
+
+            onPropertiesChanged(style != null ? changes | CHANGES_STYLE : changes);
+        }
+    }
 }
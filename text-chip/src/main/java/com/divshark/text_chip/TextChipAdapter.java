@@ -0,0 +1,249 @@
+package com.divshark.text_chip;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RecyclerView adapter showing a list of {@link ChipItem}s with stable ids. Chips are taken
+ * from a {@link TextChipPool} and go back to it when RecyclerView drops their holder, either
+ * because it could not be recycled or because the adapter was detached. Color only changes are
+ * rebound through a payload, without going through the text measure path. With a {@link ChipSelectionModel} clicks
+ * toggle the selection and only the chips in changed ranges are rebound.
+ */
+public class TextChipAdapter extends RecyclerView.Adapter<TextChipAdapter.ChipViewHolder> {
+
+    // Payload for updates which only change the colors of an item
+    static final Object PAYLOAD_COLORS = new Object();
+
+    // Payload for selection changes
+    static final Object PAYLOAD_CHECKED = new Object();
+
+    /**
+     * Receives clicks on the chips
+     */
+    public interface OnChipClickListener {
+        void onChipClick(ChipItem item, int position);
+    }
+
+    private final TextChipPool mPool;
+    private List<ChipItem> mItems = Collections.emptyList();
+    private OnChipClickListener mOnChipClickListener;
+    private ChipSelectionModel mSelectionModel;
+
+    // Holders whose chips are handed back to the pool once RecyclerView drops them
+    private final List<ChipViewHolder> mHolders = new ArrayList<>();
+    private int mAttachedCount;
+
+    private final ChipSelectionModel.OnSelectionChangedListener mSelectionListener =
+            new ChipSelectionModel.OnSelectionChangedListener() {
+                @Override
+                public void onSelectionChanged(ChipSelectionModel model, int fromIndex, int toIndex) {
+                    notifyItemRangeChanged(fromIndex, toIndex - fromIndex, PAYLOAD_CHECKED);
+                }
+            };
+
+    public TextChipAdapter(TextChipPool pool) {
+        this.mPool = pool;
+        setHasStableIds(true);
+    }
+
+    public void setOnChipClickListener(OnChipClickListener listener) {
+        this.mOnChipClickListener = listener;
+    }
+
+    public void setItems(List<ChipItem> items) {
+        this.mItems = new ArrayList<>(items);
+        if (mSelectionModel != null) {
+            mSelectionModel.setItemCount(mItems.size());
+        }
+        notifyDataSetChanged();
+    }
+
+    public ChipSelectionModel getSelectionModel() {
+        return mSelectionModel;
+    }
+
+    /**
+     * Shows the selection of the model as checked chips, keyed by adapter position
+     */
+    public void setSelectionModel(ChipSelectionModel selectionModel) {
+        if (mSelectionModel != null) {
+            mSelectionModel.removeOnSelectionChangedListener(mSelectionListener);
+        }
+
+        this.mSelectionModel = selectionModel;
+        if (selectionModel != null) {
+            selectionModel.setItemCount(mItems.size());
+            selectionModel.addOnSelectionChangedListener(mSelectionListener);
+        }
+        notifyDataSetChanged();
+    }
+
+    public ChipItem getItem(int position) {
+        return mItems.get(position);
+    }
+
+    /**
+     * Replaces the item at the position, rebinding only the colors when the text is unchanged
+     */
+    public void setItem(int position, ChipItem item) {
+        ChipItem previous = mItems.set(position, item);
+        if (previous.hasSameText(item)) {
+            if (!previous.equals(item)) {
+                notifyItemChanged(position, PAYLOAD_COLORS);
+            }
+        } else {
+            notifyItemChanged(position);
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return mItems.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return mItems.get(position).getId();
+    }
+
+    @Override
+    public ChipViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        TextChip chip = mPool.obtain("");
+        chip.setLayoutParams(new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        ChipViewHolder holder = new ChipViewHolder(chip);
+        mHolders.add(holder);
+        return holder;
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        mAttachedCount++;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        mAttachedCount--;
+        if (mAttachedCount > 0) {
+            return;
+        }
+
+        // RecyclerView drops its recycled holders along with the adapter
+        for (int i = 0; i < mHolders.size(); i++) {
+            releaseChip(mHolders.get(i));
+        }
+        mHolders.clear();
+    }
+
+    @Override
+    public boolean onFailedToRecycleView(ChipViewHolder holder) {
+        // Not recycled, the holder is dropped
+        mHolders.remove(holder);
+        releaseChip(holder);
+        return false;
+    }
+
+    private void releaseChip(ChipViewHolder holder) {
+        if (holder.chip.getParent() == null) {
+            mPool.release(holder.chip);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(ChipViewHolder holder, int position) {
+        holder.bind(mItems.get(position), position);
+    }
+
+    @Override
+    public void onBindViewHolder(ChipViewHolder holder, int position, List<Object> payloads) {
+        if (payloads.isEmpty() || !isPartial(payloads)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        for (int i = 0; i < payloads.size(); i++) {
+            if (payloads.get(i) == PAYLOAD_COLORS) {
+                holder.bindColors(mItems.get(position));
+            } else {
+                holder.bindChecked(position);
+            }
+        }
+    }
+
+    private static boolean isPartial(List<Object> payloads) {
+        for (int i = 0; i < payloads.size(); i++) {
+            Object payload = payloads.get(i);
+            if (payload != PAYLOAD_COLORS && payload != PAYLOAD_CHECKED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Holds a single TextChip
+     */
+    public class ChipViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+
+        public final TextChip chip;
+
+        // Reused for every bind, binding while scrolling does not allocate an editor
+        private final TextChip.Editor mEditor;
+
+        // Style of the last bound item, null for the pool's default style
+        private ChipStyle mBoundStyle;
+
+        ChipViewHolder(TextChip chip) {
+            super(chip);
+            this.chip = chip;
+            this.mEditor = chip.edit();
+            chip.setOnClickListener(this);
+        }
+
+        void bind(ChipItem item, int position) {
+            // Applied in the same pass as the text, rows of a single style never apply it again
+            ChipStyle style = item.getChipStyle();
+            if (style != mBoundStyle) {
+                mEditor.setChipStyle(style != null ? style : ChipStyle.getDefault(chip.getContext()));
+                mBoundStyle = style;
+            }
+
+            mEditor.setText(item.getText())
+                    .setTextColor(item.getTextColor())
+                    .setBackgroundColor(item.getBackgroundColor())
+                    .apply();
+            bindChecked(position);
+        }
+
+        void bindChecked(int position) {
+            chip.setChecked(mSelectionModel != null && mSelectionModel.isSelected(position));
+        }
+
+        void bindColors(ChipItem item) {
+            mEditor.setTextColor(item.getTextColor())
+                    .setBackgroundColor(item.getBackgroundColor())
+                    .apply();
+        }
+
+        @Override
+        public void onClick(View v) {
+            int position = getAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) {
+                return;
+            }
+
+            if (mSelectionModel != null) {
+                mSelectionModel.toggle(position);
+            }
+            if (mOnChipClickListener != null) {
+                mOnChipClickListener.onChipClick(mItems.get(position), position);
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+
+import java.util.Locale;
+
+/**
+ * Draws a chip without a View: the round rect background, the centered text and, once the
+ * drawable receives a pressed or focused state, the chip_selector foreground. Measurements and
+ * painters are shared with every {@link TextChip} of the same {@link ChipStyle}.
+ */
+public class TextChipDrawable extends Drawable implements Drawable.Callback {
+
+    // Creates the foreground, the drawable does not keep the Context of a long lived Spannable
+    private final ChipStyleDefaults mDefaults;
+    private final RectF mRect = new RectF();
+
+    private ChipStyle mStyle;
+    private Locale mTextLocale;
+
+    // Painters of the style until alpha or a color filter is set
+    private Paint mTextPaint;
+    private Paint mBackgroundPaint;
+    private boolean mOwnsPaints;
+    private int mAlpha = 255;
+    private ColorFilter mColorFilter;
+
+    private String mOriginalText;
+    private String mDisplayText;
+    private float mTextWidth;
+    private float mTextHeight;
+    private float mCornerRadius;
+    private float mInternalPadding;
+    private float mDefaultHeight;
+
+    // Created on the first state change, chips in spans are never stateful
+    private Drawable mForegroundDrawable;
+
+    // Last hotspot, handed to the foreground when it is created after the hotspot was set
+    private boolean mHasHotspot;
+    private float mHotspotX;
+    private float mHotspotY;
+    private Rect mHotspotBounds;
+
+    public TextChipDrawable(Context context, CharSequence text) {
+        this(context, text, ChipStyle.getDefault(context));
+    }
+
+    public TextChipDrawable(Context context, CharSequence text, ChipStyle style) {
+        ChipStyleDefaults defaults = ChipStyleDefaults.get(context);
+        this.mDefaults = defaults;
+        this.mTextLocale = defaults.locale;
+        this.mInternalPadding = defaults.internalPadding;
+        this.mDefaultHeight = defaults.defaultHeight;
+        this.mOriginalText = text.toString();
+        this.mStyle = style;
+
+        applyPaints();
+        computeBounds();
+    }
+
+    public String getText() {
+        return mOriginalText;
+    }
+
+    /**
+     * Sets the text, character styles of spanned text are not drawn
+     */
+    public void setText(CharSequence text) {
+        String original = text.toString();
+        if (original.equals(mOriginalText)) {
+            return;
+        }
+
+        this.mOriginalText = original;
+        computeBounds();
+        invalidateSelf();
+    }
+
+    public ChipStyle getChipStyle() {
+        return mStyle;
+    }
+
+    public void setChipStyle(ChipStyle style) {
+        this.mStyle = style;
+        applyPaints();
+        computeBounds();
+        invalidateSelf();
+    }
+
+    /**
+     * Sets the locale used to upper case the text, defaults to the locale of the resources
+     */
+    public void setTextLocale(Locale locale) {
+        if (locale == null) {
+            throw new IllegalArgumentException("locale must not be null");
+        }
+        if (locale.equals(mTextLocale)) {
+            return;
+        }
+
+        this.mTextLocale = locale;
+        computeBounds();
+        invalidateSelf();
+    }
+
+    /**
+     * Returns the text drawn, upper cased & ellipsized as the style requires
+     */
+    String getDisplayText() {
+        return mDisplayText;
+    }
+
+    float getCornerRadius() {
+        return mCornerRadius;
+    }
+
+    /**
+     * Returns the chip_selector foreground, null until the first state change
+     */
+    Drawable getForegroundDrawable() {
+        return mForegroundDrawable;
+    }
+
+    private void computeBounds() {
+        String text = TextChip.transformCase(mOriginalText, mStyle.isUpperCase(), mTextLocale);
+
+        float maxWidth = mStyle.getMaxWidth() == Integer.MAX_VALUE
+                ? TextMeasureCache.NO_MAX_WIDTH
+                : Math.max(0f, mStyle.getMaxWidth() - (2f * mInternalPadding));
+
+        // Same cache entries as the TextChips showing this text
+        TextMeasureCache.Measurement measurement = TextMeasureCache.getInstance().obtain(text,
+                mStyle.getTextSize(), mStyle.getStrokeWidth(), mStyle.getTypeface(), mStyle.isUpperCase(),
+                maxWidth, mStyle.getMaxChars(), mStyle.measurer);
+        mTextWidth = measurement.width;
+        mTextHeight = measurement.height;
+        mDisplayText = measurement.text;
+
+        mCornerRadius = TextChip.cornerRadius(mTextHeight);
+    }
+
+    private void applyPaints() {
+        mTextPaint = mStyle.textPaint;
+        mBackgroundPaint = mStyle.backgroundPaint;
+        mOwnsPaints = false;
+
+        if (mAlpha != 255 || mColorFilter != null) {
+            editPaints();
+        }
+    }
+
+    /**
+     * Copies the shared painters before alpha or a color filter is applied to them
+     */
+    private void editPaints() {
+        if (!mOwnsPaints) {
+            mTextPaint = new Paint(mTextPaint);
+            mBackgroundPaint = new Paint(mBackgroundPaint);
+            mOwnsPaints = true;
+        }
+
+        mTextPaint.setAlpha(Color.alpha(mStyle.getTextColor()) * mAlpha / 255);
+        mBackgroundPaint.setAlpha(Color.alpha(mStyle.getBackgroundColor()) * mAlpha / 255);
+        mTextPaint.setColorFilter(mColorFilter);
+        mBackgroundPaint.setColorFilter(mColorFilter);
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        Rect bounds = getBounds();
+        mRect.set(bounds.left, bounds.top, bounds.right, bounds.bottom);
+
+        drawChip(canvas, mRect, mCornerRadius, mDisplayText, mTextWidth, mTextHeight, mBackgroundPaint, mTextPaint);
+
+        if (mForegroundDrawable != null) {
+            mForegroundDrawable.draw(canvas);
+        }
+    }
+
+    /**
+     * Draws the round rect background & the centered text of a chip, shared with the views
+     * drawing chips on their own canvas
+     */
+    static void drawChip(Canvas canvas, RectF rect, float cornerRadius, String text, float textWidth,
+            float textHeight, Paint backgroundPaint, Paint textPaint) {
+
+        // Paint the chip background
+        canvas.drawRoundRect(rect, cornerRadius, cornerRadius, backgroundPaint);
+
+        // Paint the text in the middle of the chip
+        float textX = rect.centerX() - (textWidth / 2f);
+        float textY = rect.centerY() + (textHeight / 4f);
+        canvas.drawText(text, textX, textY, textPaint);
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return TextChip.rectWidth(mTextWidth, mInternalPadding);
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return TextChip.rectHeight(mTextHeight, mInternalPadding, mDefaultHeight);
+    }
+
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        if (mForegroundDrawable != null) {
+            mForegroundDrawable.setBounds(bounds);
+        }
+    }
+
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    protected boolean onStateChange(int[] state) {
+        if (mForegroundDrawable == null) {
+            if (state == null || state.length == 0) {
+                return false;
+            }
+
+            mForegroundDrawable = mDefaults.newForegroundDrawable();
+            mForegroundDrawable.setCallback(this);
+            mForegroundDrawable.setBounds(getBounds());
+            applyHotspot();
+        }
+        return mForegroundDrawable.setState(state);
+    }
+
+    // Hotspots are only set on API 21+, where the foreground supports them
+    @SuppressWarnings("NewApi")
+    private void applyHotspot() {
+        if (mHotspotBounds != null) {
+            mForegroundDrawable.setHotspotBounds(mHotspotBounds.left, mHotspotBounds.top, mHotspotBounds.right,
+                    mHotspotBounds.bottom);
+        }
+        if (mHasHotspot) {
+            mForegroundDrawable.setHotspot(mHotspotX, mHotspotY);
+        }
+    }
+
+    @SuppressWarnings("NewApi")
+    @Override
+    public void setHotspot(float x, float y) {
+        mHasHotspot = true;
+        mHotspotX = x;
+        mHotspotY = y;
+        if (mForegroundDrawable != null) {
+            mForegroundDrawable.setHotspot(x, y);
+        }
+    }
+
+    @SuppressWarnings("NewApi")
+    @Override
+    public void setHotspotBounds(int left, int top, int right, int bottom) {
+        if (mHotspotBounds == null) {
+            mHotspotBounds = new Rect();
+        }
+        mHotspotBounds.set(left, top, right, bottom);
+        if (mForegroundDrawable != null) {
+            mForegroundDrawable.setHotspotBounds(left, top, right, bottom);
+        }
+    }
+
+    // Drawable.Callback of the foreground, the ripple animates through the host of this drawable
+
+    @Override
+    public void invalidateDrawable(Drawable who) {
+        invalidateSelf();
+    }
+
+    @Override
+    public void scheduleDrawable(Drawable who, Runnable what, long when) {
+        scheduleSelf(what, when);
+    }
+
+    @Override
+    public void unscheduleDrawable(Drawable who, Runnable what) {
+        unscheduleSelf(what);
+    }
+
+    @Override
+    public void jumpToCurrentState() {
+        if (mForegroundDrawable != null) {
+            mForegroundDrawable.jumpToCurrentState();
+        }
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (alpha == mAlpha) {
+            return;
+        }
+
+        this.mAlpha = alpha;
+        editPaints();
+        invalidateSelf();
+    }
+
+    @Override
+    public int getAlpha() {
+        return mAlpha;
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        this.mColorFilter = colorFilter;
+        editPaints();
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+}
@@ -0,0 +1,102 @@
+package com.divshark.text_chip;
+
+import android.content.Context;
+
+import java.util.ArrayDeque;
+
+/**
+ * Bounded pool of detached TextChips which are reset to their defaults on release, so screens
+ * that constantly create & drop chips skip the painter, drawable & defaults setup.
+ * Chips are tied to the pool's Context. Must be used on the main thread.
+ */
+public final class TextChipPool {
+
+    // Default number of released chips kept around
+    public static final int DEFAULT_MAX_SIZE = 32;
+
+    private final Context mContext;
+    private final int mMaxSize;
+    private final ArrayDeque<TextChip> mChips;
+
+    private long mCreated;
+    private long mReused;
+
+    public TextChipPool(Context context) {
+        this(context, DEFAULT_MAX_SIZE);
+    }
+
+    public TextChipPool(Context context, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        this.mContext = context;
+        this.mMaxSize = maxSize;
+        this.mChips = new ArrayDeque<>(maxSize);
+    }
+
+    public Context getContext() {
+        return mContext;
+    }
+
+    /**
+     * Returns a released chip showing the text, or a new one when the pool is empty
+     */
+    public TextChip obtain(CharSequence text) {
+        TextChip chip = mChips.pollLast();
+        if (chip == null) {
+            mCreated++;
+            return new TextChip(mContext, text.toString());
+        }
+
+        mReused++;
+        chip.setText(text);
+        return chip;
+    }
+
+    /**
+     * Resets the chip to its defaults and keeps it for reuse. Returns false when the pool
+     * is full and the chip was dropped.
+     */
+    public boolean release(TextChip chip) {
+        if (chip.getParent() != null) {
+            throw new IllegalStateException("TextChip must be removed from its parent before it is released");
+        }
+        if (chip.getContext() != mContext) {
+            throw new IllegalArgumentException("TextChip was not created with the pool's Context");
+        }
+
+        if (mChips.size() >= mMaxSize || mChips.contains(chip)) {
+            return false;
+        }
+
+        chip.resetToDefaults();
+        mChips.addLast(chip);
+        return true;
+    }
+
+    public int size() {
+        return mChips.size();
+    }
+
+    public int getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * Number of chips created because the pool was empty
+     */
+    public long getCreatedCount() {
+        return mCreated;
+    }
+
+    /**
+     * Number of chips handed out again after being released
+     */
+    public long getReusedCount() {
+        return mReused;
+    }
+
+    public void clear() {
+        mChips.clear();
+    }
+}
@@ -0,0 +1,281 @@
+package com.divshark.text_chip;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide, bounded LRU cache of text measurements used by the TextChip
+ */
+public final class TextMeasureCache {
+
+    // Default number of measurements kept around
+    public static final int DEFAULT_CAPACITY = 512;
+
+    // Appended to text truncated to a max width or max chars
+    static final String ELLIPSIS = "\u2026";
+
+    // Limits used when the text should not be truncated
+    public static final float NO_MAX_WIDTH = Float.MAX_VALUE;
+    public static final int NO_MAX_CHARS = Integer.MAX_VALUE;
+
+    private static final TextMeasureCache INSTANCE = new TextMeasureCache(DEFAULT_CAPACITY);
+
+    /**
+     * Performs the actual measurement when the cache misses
+     */
+    public interface Measurer {
+        float measureWidth(String text);
+        float measureHeight();
+
+        /**
+         * Measures text[0, end) forwards and stops once maxWidth is filled, like Paint.breakText.
+         * Returns the number of chars that fit and stores their width in measuredWidth[0].
+         */
+        int breakText(String text, int end, float maxWidth, float[] measuredWidth);
+    }
+
+    /**
+     * Cached text width & height, along with the text to draw when it was truncated
+     */
+    public static final class Measurement {
+        public final float width;
+        public final float height;
+        public final String text;
+        public final boolean truncated;
+
+        Measurement(float width, float height, String text, boolean truncated) {
+            this.width = width;
+            this.height = height;
+            this.text = text;
+            this.truncated = truncated;
+        }
+    }
+
+    private final LinkedHashMap<Key, Measurement> mEntries;
+
+    // Reused lookup key so cache hits do not allocate, only used while holding the lock
+    private final Key mProbe = new Key();
+    private int mCapacity;
+
+    private long mHits;
+    private long mMisses;
+    private long mEvictions;
+
+    TextMeasureCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.mCapacity = capacity;
+        this.mEntries = new LinkedHashMap<Key, Measurement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Measurement> eldest) {
+                if (size() > mCapacity) {
+                    mEvictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static TextMeasureCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached measurement for the given text & paint configuration,
+     * measuring it with the measurer on a miss
+     */
+    public Measurement obtain(String text, float textSize, float strokeWidth, Typeface typeface,
+                              boolean upperCase, Measurer measurer) {
+        return obtain(text, textSize, strokeWidth, typeface, upperCase, NO_MAX_WIDTH, NO_MAX_CHARS, measurer);
+    }
+
+    /**
+     * Returns the cached measurement for the text end ellipsized to fit within maxWidth
+     * and maxChars, measuring it with the measurer on a miss. Misses measure without holding
+     * the lock, so a background batch never blocks lookups from the main thread.
+     */
+    public Measurement obtain(String text, float textSize, float strokeWidth, Typeface typeface,
+                              boolean upperCase, float maxWidth, int maxChars, Measurer measurer) {
+        synchronized (this) {
+            mProbe.set(text, textSize, strokeWidth, typeface, upperCase, maxWidth, maxChars);
+
+            Measurement measurement = mEntries.get(mProbe);
+            if (measurement != null) {
+                mHits++;
+                return measurement;
+            }
+            mMisses++;
+        }
+
+        Measurement measurement;
+        if (maxWidth == NO_MAX_WIDTH && maxChars >= text.length()) {
+            measurement = new Measurement(measurer.measureWidth(text), measurer.measureHeight(), text, false);
+        } else {
+            measurement = measureTruncated(text, maxWidth, maxChars, measurer);
+        }
+
+        Key key = new Key();
+        key.set(text, textSize, strokeWidth, typeface, upperCase, maxWidth, maxChars);
+        synchronized (this) {
+            // Keep the entry of a thread which measured the same text first
+            Measurement existing = mEntries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            mEntries.put(key, measurement);
+        }
+        return measurement;
+    }
+
+    /**
+     * Measures incrementally up to the limits instead of measuring the whole text
+     */
+    private static Measurement measureTruncated(String text, float maxWidth, int maxChars, Measurer measurer) {
+        float[] measuredWidth = new float[1];
+        float height = measurer.measureHeight();
+        int end = Math.min(text.length(), Math.max(0, maxChars));
+        boolean truncated = end < text.length();
+
+        int count = measurer.breakText(text, end, maxWidth, measuredWidth);
+        if (!truncated && count == end) {
+            return new Measurement(measuredWidth[0], height, text, false);
+        }
+
+        // Leave room for the ellipsis
+        float ellipsisWidth = measurer.measureWidth(ELLIPSIS);
+        count = measurer.breakText(text, Math.min(count, end), Math.max(0f, maxWidth - ellipsisWidth), measuredWidth);
+
+        String ellipsized = text.substring(0, count).trim() + ELLIPSIS;
+        return new Measurement(measurer.measureWidth(ellipsized), height, ellipsized, true);
+    }
+
+    public synchronized int getCapacity() {
+        return mCapacity;
+    }
+
+    public synchronized void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.mCapacity = capacity;
+        trimToCapacity();
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return mHits;
+    }
+
+    public synchronized long getMissCount() {
+        return mMisses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return mEvictions;
+    }
+
+    public synchronized void clear() {
+        mEntries.clear();
+        mHits = 0;
+        mMisses = 0;
+        mEvictions = 0;
+    }
+
+    private void trimToCapacity() {
+        while (mEntries.size() > mCapacity) {
+            Key eldest = mEntries.keySet().iterator().next();
+            mEntries.remove(eldest);
+            mEvictions++;
+        }
+    }
+
+    /**
+     * Measures text with a Paint
+     */
+    static final class PaintMeasurer implements Measurer {
+        private Paint mPaint;
+
+        PaintMeasurer(Paint paint) {
+            this.mPaint = paint;
+        }
+
+        void setPaint(Paint paint) {
+            this.mPaint = paint;
+        }
+
+        @Override
+        public float measureWidth(String text) {
+            return mPaint.measureText(text);
+        }
+
+        @Override
+        public float measureHeight() {
+            return mPaint.getTextSize() - (mPaint.ascent() + mPaint.descent());
+        }
+
+        @Override
+        public int breakText(String text, int end, float maxWidth, float[] measuredWidth) {
+            return mPaint.breakText(text, 0, end, true, maxWidth, measuredWidth);
+        }
+    }
+
+    private static final class Key {
+        private String text;
+        private float textSize;
+        private float strokeWidth;
+        private Typeface typeface;
+        private boolean upperCase;
+        private float maxWidth;
+        private int maxChars;
+        private int hash;
+
+        void set(String text, float textSize, float strokeWidth, Typeface typeface, boolean upperCase,
+                 float maxWidth, int maxChars) {
+            this.text = text;
+            this.textSize = textSize;
+            this.strokeWidth = strokeWidth;
+            this.typeface = typeface;
+            this.upperCase = upperCase;
+            this.maxWidth = maxWidth;
+            this.maxChars = maxChars;
+
+            int result = text.hashCode();
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(strokeWidth);
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + (upperCase ? 1 : 0);
+            result = 31 * result + Float.floatToIntBits(maxWidth);
+            result = 31 * result + maxChars;
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key other = (Key) o;
+            return hash == other.hash
+                    && upperCase == other.upperCase
+                    && maxChars == other.maxChars
+                    && Float.compare(maxWidth, other.maxWidth) == 0
+                    && Float.compare(textSize, other.textSize) == 0
+                    && Float.compare(strokeWidth, other.strokeWidth) == 0
+                    && (typeface != null ? typeface.equals(other.typeface) : other.typeface == null)
+                    && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.divshark.text_chip;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the shared case transformation cache
+ */
+public class CaseTransformCacheTest {
+
+    private static final Locale TURKISH = new Locale("tr", "TR");
+
+    private CaseTransformCache mCache;
+
+    @Before
+    public void setUp() throws Exception {
+        mCache = new CaseTransformCache(4);
+    }
+
+    @Test
+    public void transform_trimsAndUpperCases() throws Exception {
+        assertEquals("CHIP", mCache.transform(" chip ", true, Locale.US));
+        assertEquals("chip", mCache.transform(" chip ", false, Locale.US));
+    }
+
+    @Test
+    public void transform_usesTheGivenLocale() throws Exception {
+        assertEquals("TITLE", mCache.transform("title", true, Locale.US));
+        assertEquals("T\u0130TLE", mCache.transform("title", true, TURKISH));
+    }
+
+    @Test
+    public void togglingCase_returnsTheSameInstances() throws Exception {
+        String upper = mCache.transform("android", true, Locale.US);
+        String lower = mCache.transform("android", false, Locale.US);
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(upper, mCache.transform("android", true, Locale.US));
+            assertSame(lower, mCache.transform("android", false, Locale.US));
+        }
+
+        assertEquals(1, mCache.getMissCount());
+        assertEquals(201, mCache.getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedLabelIsEvicted() throws Exception {
+        mCache.transform("a", true, Locale.US);
+        mCache.transform("b", true, Locale.US);
+        mCache.transform("c", true, Locale.US);
+        mCache.transform("d", true, Locale.US);
+        mCache.transform("e", true, Locale.US);
+
+        assertEquals(4, mCache.size());
+
+        mCache.transform("a", true, Locale.US);
+        assertEquals(6, mCache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity_throws() throws Exception {
+        new CaseTransformCache(0);
+    }
+}
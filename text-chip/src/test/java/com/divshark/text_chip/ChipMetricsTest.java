@@ -0,0 +1,89 @@
+package com.divshark.text_chip;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the chip metrics registry
+ */
+public class ChipMetricsTest {
+
+    // Same bits as the TextChip change flags
+    private static final int TEXT = 1;
+    private static final int TEXT_COLOR = 1 << 1;
+
+    @Before
+    public void setUp() throws Exception {
+        ChipMetrics.reset();
+    }
+
+    @Test
+    public void histogram_tracksCountMeanAndMax() throws Exception {
+        ChipMetrics.Histogram histogram = new ChipMetrics.Histogram();
+        histogram.record(100);
+        histogram.record(200);
+        histogram.record(300);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(200, histogram.getMeanNanos());
+        assertEquals(300, histogram.getMaxNanos());
+    }
+
+    @Test
+    public void histogram_percentileIsBucketUpperBound() throws Exception {
+        ChipMetrics.Histogram histogram = new ChipMetrics.Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1000000);
+
+        // 1000ns falls in the [512, 1023] bucket
+        assertEquals(1023, histogram.getPercentileNanos(50f));
+        assertEquals(1023, histogram.getPercentileNanos(99f));
+        assertEquals(1000000, histogram.getPercentileNanos(100f));
+    }
+
+    @Test
+    public void propertyChanges_countLayoutRequestsPerProperty() throws Exception {
+        ChipMetrics.recordPropertyChanges(TEXT, true);
+        ChipMetrics.recordPropertyChanges(TEXT, false);
+        ChipMetrics.recordPropertyChanges(TEXT | TEXT_COLOR, true);
+        ChipMetrics.recordPropertyChanges(TEXT_COLOR, false);
+
+        assertEquals(3, ChipMetrics.getPropertyUpdateCount("text"));
+        assertEquals(2, ChipMetrics.getPropertyLayoutCount("text"));
+        assertEquals(2, ChipMetrics.getPropertyUpdateCount("textColor"));
+        assertEquals(1, ChipMetrics.getPropertyLayoutCount("textColor"));
+        assertEquals(0, ChipMetrics.getPropertyUpdateCount("textSize"));
+    }
+
+    @Test
+    public void listener_receivesPropertyChanges() throws Exception {
+        final StringBuilder events = new StringBuilder();
+        ChipMetrics.setListener(new ChipMetrics.Listener() {
+            @Override
+            public void onStage(int stage, long durationNanos) {
+            }
+
+            @Override
+            public void onPropertyChanged(String property, boolean layoutRequested) {
+                events.append(property).append('=').append(layoutRequested).append(';');
+            }
+        });
+
+        try {
+            ChipMetrics.recordPropertyChanges(TEXT | TEXT_COLOR, false);
+        } finally {
+            ChipMetrics.setListener(null);
+        }
+
+        assertEquals("text=false;textColor=false;", events.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownProperty_throws() throws Exception {
+        ChipMetrics.getPropertyUpdateCount("unknown");
+    }
+}
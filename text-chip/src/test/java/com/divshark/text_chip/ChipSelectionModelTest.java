@@ -0,0 +1,150 @@
+package com.divshark.text_chip;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the bitset backed chip selection
+ */
+public class ChipSelectionModelTest {
+
+    private ChipSelectionModel mModel;
+
+    // Changed ranges as {from, to} pairs
+    private final List<int[]> mRanges = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        mModel = new ChipSelectionModel(10);
+        mModel.addOnSelectionChangedListener(new ChipSelectionModel.OnSelectionChangedListener() {
+            @Override
+            public void onSelectionChanged(ChipSelectionModel model, int fromIndex, int toIndex) {
+                mRanges.add(new int[] {fromIndex, toIndex});
+            }
+        });
+    }
+
+    @Test
+    public void listeners_allNotifiedUntilRemoved() throws Exception {
+        final int[] calls = new int[1];
+        ChipSelectionModel.OnSelectionChangedListener second = new ChipSelectionModel.OnSelectionChangedListener() {
+            @Override
+            public void onSelectionChanged(ChipSelectionModel model, int fromIndex, int toIndex) {
+                calls[0]++;
+            }
+        };
+        mModel.addOnSelectionChangedListener(second);
+        mModel.addOnSelectionChangedListener(second);
+
+        mModel.toggle(1);
+        mModel.removeOnSelectionChangedListener(second);
+        mModel.toggle(1);
+
+        assertEquals(1, calls[0]);
+        assertRanges(1, 2, 1, 2);
+    }
+
+    @Test
+    public void toggle_flipsSingleChip() throws Exception {
+        mModel.toggle(3);
+        assertTrue(mModel.isSelected(3));
+
+        mModel.toggle(3);
+        assertFalse(mModel.isSelected(3));
+
+        assertRanges(3, 4, 3, 4);
+    }
+
+    @Test
+    public void setSelected_unchangedDoesNotNotify() throws Exception {
+        mModel.setSelected(2, false);
+        mModel.setSelected(2, true);
+        mModel.setSelected(2, true);
+
+        assertRanges(2, 3);
+        assertEquals(1, mModel.getSelectedCount());
+    }
+
+    @Test
+    public void selectAll_reportsPreviouslyUnselectedRuns() throws Exception {
+        mModel.setSelected(2, true);
+        mModel.setSelected(3, true);
+        mModel.setSelected(7, true);
+        mRanges.clear();
+
+        mModel.selectAll();
+
+        assertEquals(10, mModel.getSelectedCount());
+        assertRanges(0, 2, 4, 7, 8, 10);
+    }
+
+    @Test
+    public void clear_reportsPreviouslySelectedRuns() throws Exception {
+        mModel.setSelected(0, true);
+        mModel.setSelected(5, true);
+        mModel.setSelected(6, true);
+        mRanges.clear();
+
+        mModel.clear();
+
+        assertEquals(0, mModel.getSelectedCount());
+        assertRanges(0, 1, 5, 7);
+    }
+
+    @Test
+    public void clear_emptySelectionDoesNotNotify() throws Exception {
+        mModel.clear();
+
+        assertTrue(mRanges.isEmpty());
+    }
+
+    @Test
+    public void invert_flipsEveryChip() throws Exception {
+        mModel.setSelected(4, true);
+        mRanges.clear();
+
+        mModel.invert();
+
+        assertFalse(mModel.isSelected(4));
+        assertEquals(9, mModel.getSelectedCount());
+        assertRanges(0, 10);
+    }
+
+    @Test
+    public void nextSelected_iteratesSelection() throws Exception {
+        mModel.setSelected(1, true);
+        mModel.setSelected(8, true);
+
+        assertEquals(1, mModel.nextSelected(0));
+        assertEquals(8, mModel.nextSelected(2));
+        assertEquals(-1, mModel.nextSelected(9));
+    }
+
+    @Test
+    public void setItemCount_dropsSelectionPastCount() throws Exception {
+        mModel.setSelected(9, true);
+
+        mModel.setItemCount(5);
+        mModel.setItemCount(10);
+
+        assertFalse(mModel.isSelected(9));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void indexPastCount_throws() throws Exception {
+        mModel.isSelected(10);
+    }
+
+    private void assertRanges(int... bounds) {
+        assertEquals(bounds.length / 2, mRanges.size());
+        for (int i = 0; i < mRanges.size(); i++) {
+            assertEquals(bounds[2 * i], mRanges.get(i)[0]);
+            assertEquals(bounds[2 * i + 1], mRanges.get(i)[1]);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.divshark.text_chip;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the reusable chip text buffer
+ */
+public class ChipTextBufferTest {
+
+    private ChipTextBuffer mBuffer;
+
+    @Before
+    public void setUp() throws Exception {
+        mBuffer = new ChipTextBuffer();
+    }
+
+    @Test
+    public void transform_trimsAndUpperCasesInPlace() throws Exception {
+        mBuffer.set(new StringBuilder("  text chip "));
+
+        assertTrue(mBuffer.transform(true, Locale.US));
+        assertEquals("TEXT CHIP", mBuffer.getText());
+        assertEquals("  text chip ", mBuffer.getSourceText());
+
+        assertTrue(mBuffer.transform(false, Locale.US));
+        assertEquals("text chip", mBuffer.getText());
+    }
+
+    @Test
+    public void transform_matchesStringUpperCase() throws Exception {
+        String text = "caf\u00E9 \u00FF";
+        mBuffer.set(new StringBuilder(text));
+
+        assertTrue(mBuffer.transform(true, Locale.FRANCE));
+        assertEquals(text.toUpperCase(Locale.FRANCE), mBuffer.getText());
+    }
+
+    @Test
+    public void transform_fallsBackForLocaleSpecificMappings() throws Exception {
+        mBuffer.set(new StringBuilder("title"));
+        assertFalse(mBuffer.transform(true, new Locale("tr", "TR")));
+
+        mBuffer.set(new StringBuilder("stra\u00DFe"));
+        assertFalse(mBuffer.transform(true, Locale.GERMANY));
+
+        // Without upper casing there is nothing to map
+        assertTrue(mBuffer.transform(false, Locale.GERMANY));
+    }
+
+    @Test
+    public void contentEquals_comparesChars() throws Exception {
+        StringBuilder builder = new StringBuilder("chip");
+        mBuffer.set(builder);
+
+        assertTrue(mBuffer.contentEquals(builder));
+        assertTrue(mBuffer.contentEquals("chip"));
+        assertFalse(mBuffer.contentEquals("chips"));
+        assertFalse(mBuffer.contentEquals("ship"));
+    }
+
+    @Test
+    public void set_growsForLongText() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append('a');
+        }
+        mBuffer.set(builder);
+
+        assertTrue(mBuffer.transform(false, Locale.US));
+        assertEquals(builder.toString(), mBuffer.getText());
+    }
+}
@@ -0,0 +1,121 @@
+package com.divshark.text_chip;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the cached dimension resolver
+ */
+public class DimensionResolverTest {
+
+    // ldpi to xxxhdpi
+    private static final float[] DENSITIES = new float[] {0.75f, 1f, 1.5f, 2f, 3f, 4f};
+
+    private FakeSource mSource;
+    private DimensionResolver mResolver;
+
+    @Before
+    public void setUp() throws Exception {
+        mSource = new FakeSource();
+        mResolver = new DimensionResolver(mSource);
+    }
+
+    @Test
+    public void dpToPx_scalesByDensity() throws Exception {
+        for (float density : DENSITIES) {
+            mSource.setDensity(density, density);
+
+            assertEquals(32f * density, mResolver.dpToPx(32f), 0.0001f);
+            assertEquals(32f, mResolver.pxToDp(32f * density), 0.0001f);
+        }
+    }
+
+    @Test
+    public void spToPx_usesScaledDensity() throws Exception {
+        mSource.setDensity(2f, 2.6f);
+
+        assertEquals(26f, mResolver.spToPx(10f), 0.0001f);
+        assertEquals(20f, mResolver.dpToPx(10f), 0.0001f);
+    }
+
+    @Test
+    public void bulkConversion_matchesSingleConversion() throws Exception {
+        for (float density : DENSITIES) {
+            mSource.setDensity(density, density);
+            float[] values = new float[] {26f, 0.5f, 32f, 12f};
+            float[] px = new float[values.length];
+
+            mResolver.dpToPx(values, px);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(mResolver.dpToPx(values[i]), px[i], 0f);
+            }
+
+            // In place
+            mResolver.pxToDp(px, px);
+            assertArrayEquals(values, px, 0.0001f);
+        }
+    }
+
+    @Test
+    public void metricsReadOncePerConfiguration() throws Exception {
+        mSource.setDensity(3f, 3f);
+
+        for (int i = 0; i < 1000; i++) {
+            mResolver.dpToPx(i);
+            mResolver.pxToDp(i);
+        }
+
+        assertEquals(1, mSource.reads);
+    }
+
+    @Test
+    public void configurationChange_readsMetricsAgain() throws Exception {
+        mSource.setDensity(2f, 2f);
+        assertEquals(20f, mResolver.dpToPx(10f), 0f);
+
+        mSource.setDensity(3f, 3f);
+        assertEquals(30f, mResolver.dpToPx(10f), 0f);
+        assertEquals(30f, mResolver.dpToPx(10f), 0f);
+
+        assertEquals(2, mSource.reads);
+    }
+
+    @Test
+    public void invalidate_readsMetricsAgain() throws Exception {
+        mResolver.dpToPx(1f);
+
+        mResolver.invalidate();
+        mResolver.dpToPx(1f);
+
+        assertEquals(2, mSource.reads);
+    }
+
+    private static final class FakeSource implements DimensionResolver.Source {
+
+        int reads;
+
+        private float mDensity = 1f;
+        private float mScaledDensity = 1f;
+        private long mStamp;
+
+        void setDensity(float density, float scaledDensity) {
+            this.mDensity = density;
+            this.mScaledDensity = scaledDensity;
+            mStamp++;
+        }
+
+        @Override
+        public long getConfigurationStamp() {
+            return mStamp;
+        }
+
+        @Override
+        public void readDensity(float[] out) {
+            reads++;
+            out[0] = mDensity;
+            out[1] = mScaledDensity;
+        }
+    }
+}
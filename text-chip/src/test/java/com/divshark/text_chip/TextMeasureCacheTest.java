@@ -0,0 +1,236 @@
+package com.divshark.text_chip;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the shared text measurement cache
+ */
+public class TextMeasureCacheTest {
+
+    private TextMeasureCache mCache;
+    private CountingMeasurer mMeasurer;
+
+    @Before
+    public void setUp() throws Exception {
+        mCache = new TextMeasureCache(4);
+        mMeasurer = new CountingMeasurer();
+    }
+
+    @Test
+    public void repeatedBinds_skipMeasuring() throws Exception {
+        String[] labels = new String[] {"ANDROID", "JAVA", "KOTLIN"};
+
+        // Bind the same few labels over and over, the way a RecyclerView would
+        for (int i = 0; i < 1000; i++) {
+            TextMeasureCache.Measurement measurement = mCache.obtain(labels[i % labels.length], 26f, 1f, null, true, mMeasurer);
+            assertEquals(labels[i % labels.length].length() * 10f, measurement.width, 0f);
+        }
+
+        assertEquals(labels.length, mMeasurer.widthCalls);
+        assertEquals(labels.length, mMeasurer.heightCalls);
+        assertEquals(labels.length, mCache.getMissCount());
+        assertEquals(1000 - labels.length, mCache.getHitCount());
+        assertEquals(0, mCache.getEvictionCount());
+    }
+
+    @Test
+    public void keyIncludesPaintConfiguration() throws Exception {
+        mCache.obtain("CHIP", 26f, 1f, null, true, mMeasurer);
+        mCache.obtain("CHIP", 28f, 1f, null, true, mMeasurer);
+        mCache.obtain("CHIP", 26f, 2f, null, true, mMeasurer);
+        mCache.obtain("CHIP", 26f, 1f, null, false, mMeasurer);
+
+        assertEquals(4, mMeasurer.widthCalls);
+        assertEquals(0, mCache.getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() throws Exception {
+        mCache.obtain("A", 26f, 1f, null, true, mMeasurer);
+        mCache.obtain("B", 26f, 1f, null, true, mMeasurer);
+        mCache.obtain("C", 26f, 1f, null, true, mMeasurer);
+        mCache.obtain("D", 26f, 1f, null, true, mMeasurer);
+
+        // Touch A so B becomes the eldest entry
+        mCache.obtain("A", 26f, 1f, null, true, mMeasurer);
+        mCache.obtain("E", 26f, 1f, null, true, mMeasurer);
+
+        assertEquals(4, mCache.size());
+        assertEquals(1, mCache.getEvictionCount());
+
+        int calls = mMeasurer.widthCalls;
+        mCache.obtain("A", 26f, 1f, null, true, mMeasurer);
+        assertEquals(calls, mMeasurer.widthCalls);
+        mCache.obtain("B", 26f, 1f, null, true, mMeasurer);
+        assertEquals(calls + 1, mMeasurer.widthCalls);
+    }
+
+    @Test
+    public void shrinkingCapacity_evictsEntries() throws Exception {
+        mCache.obtain("A", 26f, 1f, null, true, mMeasurer);
+        mCache.obtain("B", 26f, 1f, null, true, mMeasurer);
+        mCache.obtain("C", 26f, 1f, null, true, mMeasurer);
+
+        mCache.setCapacity(1);
+
+        assertEquals(1, mCache.getCapacity());
+        assertEquals(1, mCache.size());
+        assertEquals(2, mCache.getEvictionCount());
+    }
+
+    @Test
+    public void textWithinLimits_isNotTruncated() throws Exception {
+        TextMeasureCache.Measurement measurement = mCache.obtain("CHIP", 26f, 1f, null, true, 100f, 10, mMeasurer);
+
+        assertFalse(measurement.truncated);
+        assertEquals("CHIP", measurement.text);
+        assertEquals(40f, measurement.width, 0f);
+    }
+
+    @Test
+    public void textWiderThanMaxWidth_isEllipsized() throws Exception {
+        TextMeasureCache.Measurement measurement = mCache.obtain("ANDROID", 26f, 1f, null, true,
+                45f, TextMeasureCache.NO_MAX_CHARS, mMeasurer);
+
+        // 3 chars & the ellipsis fit in 45px
+        assertTrue(measurement.truncated);
+        assertEquals("AND" + TextMeasureCache.ELLIPSIS, measurement.text);
+        assertEquals(40f, measurement.width, 0f);
+    }
+
+    @Test
+    public void textLongerThanMaxChars_isEllipsized() throws Exception {
+        TextMeasureCache.Measurement measurement = mCache.obtain("ANDROID", 26f, 1f, null, true,
+                TextMeasureCache.NO_MAX_WIDTH, 4, mMeasurer);
+
+        assertTrue(measurement.truncated);
+        assertEquals("ANDR" + TextMeasureCache.ELLIPSIS, measurement.text);
+        assertEquals(50f, measurement.width, 0f);
+    }
+
+    @Test
+    public void truncatedMeasurements_areCached() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            mCache.obtain("ANDROID", 26f, 1f, null, true, 45f, TextMeasureCache.NO_MAX_CHARS, mMeasurer);
+        }
+
+        assertEquals(2, mMeasurer.breakTextCalls);
+        assertEquals(1, mCache.getMissCount());
+        assertEquals(99, mCache.getHitCount());
+
+        // A different limit is a different entry
+        mCache.obtain("ANDROID", 26f, 1f, null, true, 55f, TextMeasureCache.NO_MAX_CHARS, mMeasurer);
+        assertEquals(2, mCache.getMissCount());
+    }
+
+    @Test
+    public void slowMiss_doesNotBlockHits() throws Exception {
+        mCache.obtain("CHIP", 26f, 1f, null, true, mMeasurer);
+
+        final CountDownLatch measuring = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TextMeasureCache.Measurer blocking = new CountingMeasurer() {
+            @Override
+            public float measureWidth(String text) {
+                measuring.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.measureWidth(text);
+            }
+        };
+
+        // A background batch stuck measuring a new label
+        Thread batch = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                mCache.obtain("BACKGROUND", 26f, 1f, null, true, blocking);
+            }
+        });
+        batch.start();
+        assertTrue(measuring.await(5, TimeUnit.SECONDS));
+
+        // Hits & other misses complete while the batch still measures
+        assertEquals(40f, mCache.obtain("CHIP", 26f, 1f, null, true, mMeasurer).width, 0f);
+        assertEquals(30f, mCache.obtain("NEW", 26f, 1f, null, true, mMeasurer).width, 0f);
+
+        release.countDown();
+        batch.join(5000);
+        assertEquals(3, mCache.size());
+    }
+
+    @Test
+    public void racingMisses_keepTheFirstEntry() throws Exception {
+        final CountDownLatch measuring = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TextMeasureCache.Measurer blocking = new CountingMeasurer() {
+            @Override
+            public float measureWidth(String text) {
+                measuring.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.measureWidth(text);
+            }
+        };
+
+        final TextMeasureCache.Measurement[] late = new TextMeasureCache.Measurement[1];
+        Thread batch = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                late[0] = mCache.obtain("CHIP", 26f, 1f, null, true, blocking);
+            }
+        });
+        batch.start();
+        assertTrue(measuring.await(5, TimeUnit.SECONDS));
+
+        // The same label measured & stored first on this thread
+        TextMeasureCache.Measurement first = mCache.obtain("CHIP", 26f, 1f, null, true, mMeasurer);
+
+        release.countDown();
+        batch.join(5000);
+        assertSame(first, late[0]);
+        assertEquals(1, mCache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity_throws() throws Exception {
+        mCache.setCapacity(0);
+    }
+
+    private static class CountingMeasurer implements TextMeasureCache.Measurer {
+        int widthCalls;
+        int heightCalls;
+        int breakTextCalls;
+
+        @Override
+        public float measureWidth(String text) {
+            widthCalls++;
+            return text.length() * 10f;
+        }
+
+        @Override
+        public float measureHeight() {
+            heightCalls++;
+            return 30f;
+        }
+
+        @Override
+        public int breakText(String text, int end, float maxWidth, float[] measuredWidth) {
+            breakTextCalls++;
+            int count = Math.min(end, (int) (maxWidth / 10f));
+            measuredWidth[0] = count * 10f;
+            return count;
+        }
+    }
+}